@@ -0,0 +1,73 @@
+#!/usr/bin/env bash
+# Runs the suite as N shards in parallel local JVMs – each one standing in for a CI
+# node – then merges their reports into target/shards/merged.
+#
+#   ./run-shards.sh [N] [extra maven args...]     e.g.  ./run-shards.sh 3 -Dapi.stub.enabled=true
+#
+# On real CI nodes run the same surefire:test command with -Dshard.index=K
+# -Dshard.total=N, collect every node's target dir and run the ShardMerger step.
+# Every shard must see the same history for the split to be consistent; the merged
+# output of the previous run (if any) is used for that.  The same goes for the wait and
+# flakiness histories: each shard starts from a copy and ShardMerger folds the shards'
+# additions back together.  Metrics exports and logs are written per shard – parallel
+# JVMs must never share an output file.
+#
+# With -Dbrowser.server.enabled=true the shards share machine-wide browser servers, which
+# outlive the run.  Add -Dbrowser.server.stopOnExit=true to have the last shard to finish
+# stop them, or run: java -cp "target/classes:$(cat target/classpath.txt)" ui.core.BrowserServers stop
+set -euo pipefail
+
+TOTAL=${1:-2}
+shift || true
+ROOT=target/shards
+HISTORY=${SHARD_HISTORY:-$ROOT/merged/surefire-reports}
+
+# Compile once – concurrent builds into the same target/classes would race; ShardMerger
+# needs the runtime classpath too
+mvn -B -q test-compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt "$@"
+
+# Keep last run's merged reports as this run's history
+if [ -d "$ROOT/merged" ]; then
+  rm -rf "$ROOT/previous" && mv "$ROOT/merged" "$ROOT/previous"
+  HISTORY=${SHARD_HISTORY:-$ROOT/previous/surefire-reports}
+fi
+# Wait / flakiness histories: last merged run, else the unsharded defaults in target/
+SEED=target
+if [ -d "$ROOT/previous" ]; then SEED="$ROOT/previous"; fi
+for k in $(seq 1 "$TOTAL"); do rm -rf "$ROOT/shard-$k"; done
+
+pids=()
+for k in $(seq 1 "$TOTAL"); do
+  dir="$ROOT/shard-$k"
+  mkdir -p "$dir"
+  for f in wait-history.json flakiness.json; do
+    if [ -f "$SEED/$f" ]; then cp "$SEED/$f" "$dir/$f"; fi
+  done
+  mvn -B -q surefire:test \
+    -Dshard.index="$k" -Dshard.total="$TOTAL" \
+    -Dschedule.history="$HISTORY" \
+    -Dsurefire.reportsDirectory="$PWD/$dir/surefire-reports" \
+    -Dallure.results.directory="$PWD/$dir/allure-results" \
+    -Dtrace.dir="$dir/traces" \
+    -Dui.metrics.dir="$dir/ui-metrics" \
+    -Dapi.metrics.dir="$dir/api-metrics" \
+    -Dwait.history.file="$dir/wait-history.json" \
+    -Dretry.ledger.file="$dir/flakiness.json" \
+    -Dlog.dir="$PWD/$dir/logs" \
+    "$@" > "$dir/run.log" 2>&1 &
+  pids+=($!)
+done
+
+status=0
+for k in "${!pids[@]}"; do
+  if ! wait "${pids[$k]}"; then
+    echo "shard-$((k + 1)) had failures – see $ROOT/shard-$((k + 1))/run.log"
+    status=1
+  fi
+done
+
+shards=()
+for k in $(seq 1 "$TOTAL"); do shards+=("$ROOT/shard-$k"); done
+java -cp "target/classes:$(cat target/classpath.txt)" utils.ShardMerger --seed "$SEED" "$ROOT/merged" "${shards[@]}"
+
+exit $status
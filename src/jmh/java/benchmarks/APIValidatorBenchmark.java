@@ -0,0 +1,65 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.response.Response;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import utils.APIValidator;
+
+/**
+ * {@link APIValidator} field extraction on gorest-shaped bodies: a single user (what
+ * the CRUD tests see) and a 20-user page (what GET /users returns).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class APIValidatorBenchmark {
+
+    private Response single;
+    private Response page;
+
+    @Setup
+    public void setup() {
+        single = json(user(7_001_234));
+
+        StringBuilder list = new StringBuilder("[");
+        for (int i = 0; i < 20; i++) {
+            list.append(i == 0 ? "" : ",").append(user(7_001_000 + i));
+        }
+        page = json(list.append(']').toString());
+    }
+
+    @Benchmark
+    public void validateStatusCode() {
+        APIValidator.validateStatusCode(single, 200);
+    }
+
+    @Benchmark
+    public void validateField() {
+        APIValidator.validateResponseField(single, "status", "active");
+    }
+
+    @Benchmark
+    public void validateFieldInList() {
+        APIValidator.validateResponseField(page, "[10].email", "user.7001010@mail.com");
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────
+
+    private static String user(int id) {
+        return "{\"id\":" + id + ",\"name\":\"Bench User " + id + "\",\"email\":\"user." + id
+                + "@mail.com\",\"gender\":\"female\",\"status\":\"active\"}";
+    }
+
+    private static Response json(String body) {
+        return new ResponseBuilder().setStatusCode(200).setContentType("application/json").setBody(body).build();
+    }
+}
@@ -0,0 +1,77 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Prints how each benchmark in a JMH JSON result moved against a committed baseline.
+ *
+ * Args: {@code <result.json> <baseline.json> <updateBaseline>}.  The baseline is only ever
+ * written when {@code updateBaseline} is true – promoting a run into the source tree is an
+ * explicit step, taken on the reference machine, never a side effect of the first run.
+ * Scores are AverageTime, so a positive change means slower.
+ */
+public class BaselineComparison {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("Usage: BaselineComparison <result.json> <baseline.json> [updateBaseline]");
+        }
+        Path result   = Paths.get(args[0]);
+        Path baseline = Paths.get(args[1]);
+        boolean update = args.length > 2 && Boolean.parseBoolean(args[2]);
+
+        Map<String, JsonNode> current = scores(result);
+        if (!Files.exists(baseline) && !update) {
+            System.out.println("No baseline at " + baseline + " – nothing to compare against.  Run with "
+                    + "-Djmh.updateBaseline=true on the reference machine to promote " + result + ".");
+            return;
+        }
+        if (Files.exists(baseline)) {
+            Map<String, JsonNode> base = scores(baseline);
+            System.out.printf("%-70s %14s %14s %9s%n", "Benchmark", "baseline", "current", "change");
+            current.forEach((name, metric) -> {
+                JsonNode before = base.get(name);
+                double now = metric.path("score").asDouble();
+                String unit = metric.path("scoreUnit").asText();
+                if (before == null) {
+                    System.out.printf("%-70s %14s %11.3f %s %9s%n", name, "-", now, unit, "new");
+                } else {
+                    double then = before.path("score").asDouble();
+                    System.out.printf("%-70s %11.3f %s %11.3f %s %+8.1f%%%n",
+                            name, then, unit, now, unit, (now - then) / then * 100);
+                }
+            });
+        }
+
+        if (update) {
+            Files.createDirectories(baseline.toAbsolutePath().getParent());
+            Files.copy(result, baseline, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Baseline written to " + baseline);
+        }
+    }
+
+    /** benchmark name (+ params) → primaryMetric node */
+    private static Map<String, JsonNode> scores(Path file) throws IOException {
+        Map<String, JsonNode> scores = new LinkedHashMap<>();
+        for (JsonNode run : mapper.readTree(file.toFile())) {
+            String name = run.path("benchmark").asText();
+            JsonNode params = run.path("params");
+            if (!params.isMissingNode()) {
+                name += params.toString();
+            }
+            scores.put(name, run.path("primaryMetric"));
+        }
+        return scores;
+    }
+}
@@ -0,0 +1,35 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import config.ConfigReader;
+
+/** Key lookups that run on every context / request creation. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ConfigReaderBenchmark {
+
+    @Benchmark
+    public String get() {
+        return ConfigReader.get("baseUrl");
+    }
+
+    /** System property first, then the file – the path every -D switch goes through. */
+    @Benchmark
+    public String resolve() {
+        return ConfigReader.resolve("network.mode", "live");
+    }
+
+    @Benchmark
+    public int resolveInt() {
+        return ConfigReader.resolveInt("browser.recycleAfter", 50);
+    }
+}
@@ -0,0 +1,81 @@
+package benchmarks;
+
+import java.net.URL;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Locator;
+import com.microsoft.playwright.Page;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import ui.core.BrowserPool;
+import ui.models.MovieCard;
+import ui.pages.UpcomingMoviesPage;
+
+/**
+ * Page-object data extraction against the local {@code fixtures/upcoming-movies.html}
+ * (20 cards).  Compares the old per-index loop (three driver calls per card) with
+ * {@link UpcomingMoviesPage#getMovieCards()} (one call per page).  No network needed,
+ * but a Playwright chromium must be installed.
+ *
+ * Thread-scoped state: Playwright objects must stay on the thread that created them,
+ * and JMH runs setup, benchmark and teardown of a Scope.Thread state on one thread.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PageExtractionBenchmark {
+
+    private BrowserContext     context;
+    private Page               page;
+    private UpcomingMoviesPage upcoming;
+
+    @Setup
+    public void openFixture() {
+        URL fixture = PageExtractionBenchmark.class.getResource("/fixtures/upcoming-movies.html");
+        if (fixture == null) {
+            throw new IllegalStateException("fixtures/upcoming-movies.html not found on the test classpath");
+        }
+        context  = BrowserPool.acquire("chromium", true).newContext();
+        page     = context.newPage();
+        page.navigate(fixture.toString());
+        upcoming = UpcomingMoviesPage.forCurrentPage(page);
+    }
+
+    @TearDown
+    public void close() {
+        context.close();
+        BrowserPool.releaseCurrentThread();
+    }
+
+    @Benchmark
+    public List<MovieCard> bulkEvaluate() {
+        return upcoming.getMovieCards();
+    }
+
+    /** The extraction loop as it was before the bulk evaluation – kept here only for comparison. */
+    @Benchmark
+    public Map<String, String> perIndexLoop() {
+        Locator ids    = page.locator("//*[@id='media_results']//div[@data-id]");
+        Locator titles = page.locator("//*[@id='media_results']//h2");
+        Locator dates  = page.locator("//*[@id='media_results']//p");
+
+        int count = titles.count();
+        Map<String, String> movieMap = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            movieMap.put(ids.nth(i).getAttribute("data-id") + " - " + titles.nth(i).innerText(),
+                    dates.nth(i).innerText());
+        }
+        return movieMap;
+    }
+}
@@ -0,0 +1,54 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.restassured.path.json.JsonPath;
+import io.restassured.path.json.mapper.factory.DefaultJackson2ObjectMapperFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import api.models.User;
+
+/**
+ * {@link User} JSON round trip through the same Jackson ObjectMapper RestAssured builds
+ * for {@code body(user)} / {@code as(User.class)}, plus the JsonPath object mapping the
+ * tests use on responses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UserJsonBenchmark {
+
+    private ObjectMapper mapper;
+    private User         user;
+    private String       json;
+
+    @Setup
+    public void setup() throws JsonProcessingException {
+        mapper = new DefaultJackson2ObjectMapperFactory().create(User.class, "UTF-8");
+        user   = new User("John Doe", "john.doe.bench@mail.com", "male", "active");
+        json   = mapper.writeValueAsString(user);
+    }
+
+    @Benchmark
+    public String serialize() throws JsonProcessingException {
+        return mapper.writeValueAsString(user);
+    }
+
+    @Benchmark
+    public User deserialize() throws JsonProcessingException {
+        return mapper.readValue(json, User.class);
+    }
+
+    @Benchmark
+    public User deserializeViaJsonPath() {
+        return JsonPath.from(json).getObject("$", User.class);
+    }
+}
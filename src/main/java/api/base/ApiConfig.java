@@ -0,0 +1,172 @@
+package api.base;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.filter.Filter;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import org.apache.http.conn.ClientConnectionOperator;
+import org.apache.http.conn.OperatedClientConnection;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.DefaultClientConnectionOperator;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import api.metrics.HttpMetricsFilter;
+import config.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Immutable, thread-safe API client configuration – built once per environment
+ * (base URI + path) and shared by every test class and thread.
+ *
+ * Replaces the old pattern of mutating {@code RestAssured.baseURI/basePath} and a
+ * {@code protected static} spec in every {@code @BeforeClass}, which raced under
+ * {@code parallel="classes|methods"}.  The base URI, path and headers live inside the
+ * spec itself; {@code given().spec(spec)} copies it, so the shared spec is never mutated.
+ *
+ * All requests go through one pooled, keep-alive Apache HttpClient
+ * ({@code api.pool.maxConnections}, default 50), so worker threads reuse warm
+ * connections instead of opening one per request.  {@link #poolStats()} shows how many
+ * connections were actually opened for how many requests, {@link #connectionsPerThread()}
+ * the same per worker thread.
+ *
+ * Every call is timed and sized by {@link HttpMetricsFilter} (see {@code HttpMetrics}).
+ */
+public final class ApiConfig {
+
+    private static final Logger log = LogManager.getLogger(ApiConfig.class);
+
+    private static final Map<String, ApiConfig> environments = new ConcurrentHashMap<>();
+
+    private final String                         baseUri;
+    private final String                         basePath;
+    // RestAssured 5 still needs an AbstractHttpClient, so the deprecated 4.x classic API it is
+    @SuppressWarnings("deprecation")
+    private final PoolingClientConnectionManager pool;
+    private final RequestSpecification           spec;
+    private final Map<String, Counts>            perThread = new ConcurrentHashMap<>();
+    private final Counts                         total     = new Counts();
+
+    // RestAssured 5 still needs an AbstractHttpClient, so the deprecated 4.x classic API it is
+    @SuppressWarnings("deprecation")
+    private ApiConfig(String baseUri, String basePath, String authToken) {
+        this.baseUri  = baseUri;
+        this.basePath = basePath;
+
+        int maxConnections = ConfigReader.resolveInt("api.pool.maxConnections", 50);
+        pool = new PoolingClientConnectionManager() {
+            // Counts every new socket – requests minus these is how often a connection was reused.
+            // Connections are created while the requesting thread leases one, so the thread is the caller
+            @Override
+            protected ClientConnectionOperator createConnectionOperator(SchemeRegistry schemes) {
+                return new DefaultClientConnectionOperator(schemes) {
+                    @Override
+                    public OperatedClientConnection createConnection() {
+                        total.opened.increment();
+                        countsOfThisThread().opened.increment();
+                        return super.createConnection();
+                    }
+                };
+            }
+        };
+        pool.setMaxTotal(maxConnections);
+        pool.setDefaultMaxPerRoute(maxConnections);
+
+        // One client instance for every request – the factory always hands back the same
+        // object, so RestAssured's lazy "reuse" initialisation cannot race into two pools
+        DefaultHttpClient client = new DefaultHttpClient(pool);
+        RestAssuredConfig config = RestAssuredConfig.config().httpClient(
+                HttpClientConfig.httpClientConfig().httpClientFactory(() -> client).reuseHttpClientInstance());
+
+        // RestAssured reads bodies lazily – a test that only checks the status code would
+        // keep its pooled connection leased forever, so buffer every body right away
+        Filter countAndRelease = (request, response, ctx) -> {
+            total.requests.increment();
+            countsOfThisThread().requests.increment();
+            Response r = ctx.next(request, response);
+            r.asByteArray();
+            return r;
+        };
+
+        spec = new RequestSpecBuilder()
+                .setConfig(config)
+                .setBaseUri(baseUri)
+                .setBasePath(basePath)
+                .addHeader("Content-Type", "application/json")
+                .addHeader("Authorization", "Bearer " + authToken)
+                .addFilter(new HttpMetricsFilter())
+                .addFilter(countAndRelease)
+                .build();
+
+        log.info("API config built for {}{} (pool max={})", baseUri, basePath, maxConnections);
+    }
+
+    /** The shared config for the endpoint selected in config (live gorest or the stub). */
+    public static ApiConfig current() {
+        String baseUri  = ApiEndpoint.baseUri();
+        String basePath = ApiEndpoint.basePath();
+        return environments.computeIfAbsent(baseUri + basePath,
+                k -> new ApiConfig(baseUri, basePath, ApiEndpoint.authToken()));
+    }
+
+    /** Shared request spec – pass to {@code given().spec(...)}; never modify it. */
+    public RequestSpecification requestSpec() {
+        return spec;
+    }
+
+    public String baseUri() {
+        return baseUri;
+    }
+
+    public String basePath() {
+        return basePath;
+    }
+
+    /**
+     * Connection reuse per worker thread name: requests the thread sent, connections it had to
+     * open, and how many requests went out on an already-open connection.
+     */
+    public Map<String, String> connectionsPerThread() {
+        Map<String, String> usage = new TreeMap<>();
+        perThread.forEach((thread, c) -> usage.put(thread, c.toString()));
+        return usage;
+    }
+
+    /**
+     * Connection pool state: {@code opened} connections served {@code requests} requests
+     * (the rest were reuses); {@code available} are idle keep-alive connections waiting to
+     * be reused, {@code leased} are in use right now.
+     */
+    public String poolStats() {
+        PoolStats s = pool.getTotalStats();
+        return total + ", leased=" + s.getLeased() + ", available=" + s.getAvailable()
+                + ", pending=" + s.getPending() + ", max=" + s.getMax();
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────
+
+    private Counts countsOfThisThread() {
+        return perThread.computeIfAbsent(Thread.currentThread().getName(), t -> new Counts());
+    }
+
+    /** Requests sent and connections opened – by one thread, or by all of them. */
+    private static final class Counts {
+        final LongAdder requests = new LongAdder();
+        final LongAdder opened   = new LongAdder();
+
+        @Override
+        public String toString() {
+            long sent = requests.sum();
+            long created = opened.sum();
+            return "requests=" + sent + ", opened=" + created + ", reused=" + Math.max(sent - created, 0);
+        }
+    }
+}
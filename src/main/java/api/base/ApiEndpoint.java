@@ -0,0 +1,33 @@
+package api.base;
+
+import api.stub.UserStubServer;
+import config.ConfigReader;
+
+/**
+ * Resolves where API calls go: the real gorest service, or the in-process
+ * {@link UserStubServer} when {@code api.stub.enabled=true} (config or -D).
+ */
+public final class ApiEndpoint {
+
+    private ApiEndpoint() {}
+
+    /** True when API suites should run against the local stub. */
+    public static boolean isStub() {
+        return ConfigReader.resolveBoolean("api.stub.enabled", false);
+    }
+
+    /** Scheme + host (+ port), e.g. {@code https://gorest.co.in} or {@code http://127.0.0.1:54321}. */
+    public static String baseUri() {
+        return isStub() ? UserStubServer.shared().baseUri() : ConfigReader.get("base.url");
+    }
+
+    /** Path prefix shared by every endpoint, e.g. {@code /public/v2}. */
+    public static String basePath() {
+        return ConfigReader.get("base.path");
+    }
+
+    /** Bearer token sent in the Authorization header. */
+    public static String authToken() {
+        return ConfigReader.get("auth.token");
+    }
+}
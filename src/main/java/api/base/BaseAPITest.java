@@ -1,22 +1,35 @@
 package api.base;
 
-import io.restassured.RestAssured;
-import io.restassured.builder.RequestSpecBuilder;
+import api.metrics.HttpMetrics;
 import io.restassured.specification.RequestSpecification;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeClass;
-import config.ConfigReader;
 
 public class BaseAPITest {
 
-	protected static RequestSpecification requestSpec;
+	private static final Logger log = LogManager.getLogger(BaseAPITest.class);
+
+	// Shared, immutable config – no global RestAssured state is touched, so API classes
+	// can run in parallel
+	protected ApiConfig apiConfig;
 
 	@BeforeClass
 	public void setup() {
 
-		RestAssured.baseURI = ConfigReader.get("base.url");
-		RestAssured.basePath = ConfigReader.get("base.path");
+		// Live gorest, or the in-process stub when api.stub.enabled=true
+		apiConfig = ApiConfig.current();
+	}
+
+	protected RequestSpecification requestSpec() {
+		return apiConfig.requestSpec();
+	}
 
-		requestSpec = new RequestSpecBuilder().addHeader("Content-Type", "application/json")
-				.addHeader("Authorization", "Bearer " + ConfigReader.get("auth.token")).build();
+	@AfterSuite(alwaysRun = true)
+	public void logConnectionReuse() {
+		ApiConfig config = ApiConfig.current();
+		log.info("API connections per thread: {} – pool {}", config.connectionsPerThread(), config.poolStats());
+		HttpMetrics.export(HttpMetrics.defaultDir());
 	}
 }
@@ -0,0 +1,91 @@
+package api.clients;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import api.base.ApiEndpoint;
+import api.models.ApiResponse;
+import api.models.User;
+
+/**
+ * Non-blocking counterpart of {@link UserAPIClient} built on the JDK {@link HttpClient}.
+ *
+ * One HttpClient (and so one keep-alive connection pool) is shared by every instance,
+ * and its callbacks run on virtual threads.  All methods are thread-safe, so thousands
+ * of virtual threads can call them at once; blocking on {@code join()} from a virtual
+ * thread is cheap.
+ *
+ * Uses the same {@code User} model and config keys ({@code base.url}, {@code base.path},
+ * {@code auth.token}, {@code api.stub.enabled}) as the RestAssured client.
+ */
+public class AsyncUserAPIClient {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private static final HttpClient http = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    private final String usersUrl;
+    private final String authHeader;
+
+    /** Targets the endpoint from config (live gorest or the local stub). */
+    public AsyncUserAPIClient() {
+        this(ApiEndpoint.baseUri(), ApiEndpoint.basePath(), ApiEndpoint.authToken());
+    }
+
+    public AsyncUserAPIClient(String baseUri, String basePath, String authToken) {
+        this.usersUrl   = baseUri + basePath + "/users";
+        this.authHeader = "Bearer " + authToken;
+    }
+
+    public CompletableFuture<ApiResponse> createUser(User user) {
+        return send(request(usersUrl).POST(json(user)));
+    }
+
+    public CompletableFuture<ApiResponse> getUser(int userId) {
+        return send(request(usersUrl + "/" + userId).GET());
+    }
+
+    public CompletableFuture<ApiResponse> updateUser(int userId, User user) {
+        return send(request(usersUrl + "/" + userId).PUT(json(user)));
+    }
+
+    public CompletableFuture<ApiResponse> deleteUser(int userId) {
+        return send(request(usersUrl + "/" + userId).DELETE());
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────
+
+    private HttpRequest.Builder request(String url) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .header("Authorization", authHeader);
+    }
+
+    private static CompletableFuture<ApiResponse> send(HttpRequest.Builder builder) {
+        long start = System.nanoTime();
+        return http.sendAsync(builder.build(), HttpResponse.BodyHandlers.ofString())
+                .thenApply(r -> new ApiResponse(r.statusCode(), r.body(),
+                        Duration.ofNanos(System.nanoTime() - start)));
+    }
+
+    private static HttpRequest.BodyPublisher json(User user) {
+        try {
+            return HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(user));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialise user " + user.getEmail(), e);
+        }
+    }
+}
@@ -1,12 +1,24 @@
 package api.clients;
 
 import io.restassured.response.Response;
-import api.base.BaseAPITest;
+import io.restassured.specification.RequestSpecification;
+import api.base.ApiConfig;
 import api.models.User;
 
 import static io.restassured.RestAssured.given;
 
-public class UserAPIClient extends BaseAPITest {
+public class UserAPIClient {
+
+	// Shared, immutable spec – safe to use from any number of threads
+	private final RequestSpecification requestSpec;
+
+	public UserAPIClient() {
+		this(ApiConfig.current());
+	}
+
+	public UserAPIClient(ApiConfig config) {
+		this.requestSpec = config.requestSpec();
+	}
 
 	public Response createUser(User user) {
 		return given().spec(requestSpec).body(user).when().post("/users");
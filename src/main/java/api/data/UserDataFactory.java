@@ -0,0 +1,233 @@
+package api.data;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.github.javafaker.Faker;
+import api.models.User;
+import config.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Realistic, unique {@link User} payloads, generated ahead of demand.
+ *
+ * One background thread owns the {@link Faker} (it is not thread-safe) and fills a bounded
+ * queue of {@code capacity} users in batches; {@link #next()} only takes from that queue, so
+ * callers – test methods or thousands of load-run virtual threads – never pay for Faker's
+ * YAML lookups.  When the queue is full the generator simply blocks.
+ *
+ * Reproducible: the sequence of names, genders and statuses depends only on the seed
+ * ({@code testdata.seed}; a random one is logged when unset so a run can be replayed).
+ *
+ * Unique: every email is {@code first.last.<runTag>.<n>@domain}, with {@code n} counting up
+ * within the factory and {@code runTag} ({@code testdata.runTag}, random by default) telling
+ * runs apart – so neither two payloads of a run nor two runs against the same API collide.
+ * Pin both seed and run tag to reproduce payloads byte for byte.
+ *
+ * {@link #stats()} reports generation throughput and how often a caller had to wait for
+ * data; a non-zero {@code consumerWaits} means the factory, not the API, set the pace.
+ */
+public final class UserDataFactory implements AutoCloseable {
+
+    private static final Logger log = LogManager.getLogger(UserDataFactory.class);
+
+    private static final String[] GENDERS  = { "male", "female" };
+    private static final String[] STATUSES = { "active", "inactive" };
+
+    private static volatile UserDataFactory shared;
+
+    private final long                seed;
+    private final String              runTag;
+    private final int                 batchSize;
+    private final BlockingQueue<User> pool;
+    private final Thread              generator;
+
+    private final AtomicLong generated      = new AtomicLong();
+    private final AtomicLong consumed       = new AtomicLong();
+    private final AtomicLong generateNanos  = new AtomicLong();
+    private final AtomicLong consumerWaits  = new AtomicLong();
+    private final AtomicLong waitNanos      = new AtomicLong();
+
+    /**
+     * Starts the generator thread.
+     *
+     * @param seed       seeds every random choice – same seed, same sequence of users
+     * @param runTag     part of every email; distinct per run to keep runs from colliding
+     * @param capacity   users kept ready ahead of demand
+     * @param batchSize  users generated per round before they are handed to the pool
+     */
+    public UserDataFactory(long seed, String runTag, int capacity, int batchSize) {
+        if (capacity < 1 || batchSize < 1) {
+            throw new IllegalStateException("Test data pool needs capacity and batch size >= 1, was "
+                    + capacity + " / " + batchSize);
+        }
+        this.seed      = seed;
+        this.runTag    = runTag.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "");
+        this.batchSize = Math.min(batchSize, capacity);
+        this.pool      = new ArrayBlockingQueue<>(capacity);
+        this.generator = new Thread(this::generate, "user-data-factory-" + this.runTag);
+        this.generator.setDaemon(true);
+        this.generator.start();
+        log.info("User data factory – seed {}, run tag '{}', pool {} (batches of {})",
+                seed, this.runTag, capacity, this.batchSize);
+    }
+
+    /** Factory configured by the {@code testdata.*} keys, keeping at least {@code minCapacity} users ready. */
+    public static UserDataFactory fromConfig(int minCapacity) {
+        String seed = ConfigReader.resolve("testdata.seed", "");
+        String tag  = ConfigReader.resolve("testdata.runTag", "");
+        return new UserDataFactory(
+                seed.isEmpty() ? ThreadLocalRandom.current().nextLong() : Long.parseLong(seed),
+                tag.isEmpty() ? Long.toString(System.currentTimeMillis(), 36) : tag,
+                Math.max(minCapacity, ConfigReader.resolveInt("testdata.pool.size", 256)),
+                ConfigReader.resolveInt("testdata.batch.size", 32));
+    }
+
+    /** JVM-wide factory for tests; its generator is a daemon thread, so it needs no closing. */
+    public static UserDataFactory shared() {
+        UserDataFactory f = shared;
+        if (f == null) {
+            synchronized (UserDataFactory.class) {
+                f = shared;
+                if (f == null) {
+                    shared = f = fromConfig(0);
+                }
+            }
+        }
+        return f;
+    }
+
+    /** Next unique user, waiting only if the generator has fallen behind. */
+    public User next() {
+        User user = pool.poll();
+        if (user == null) {
+            if (!generator.isAlive()) {
+                throw new IllegalStateException("User data factory is closed");
+            }
+            consumerWaits.incrementAndGet();
+            long start = System.nanoTime();
+            try {
+                while ((user = pool.poll(100, TimeUnit.MILLISECONDS)) == null) {
+                    if (!generator.isAlive()) {
+                        throw new IllegalStateException("User data factory stopped while waiting for data");
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for test data", e);
+            } finally {
+                waitNanos.addAndGet(System.nanoTime() - start);
+            }
+        }
+        consumed.incrementAndGet();
+        return user;
+    }
+
+    /**
+     * Blocks until the pool is full (or {@code timeout} passes) – lets a timed run start only
+     * once Faker has warmed up and a full pool is ready.
+     */
+    public void awaitFilled(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        try {
+            while (pool.remainingCapacity() > 0 && generator.isAlive() && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for test data", e);
+        }
+    }
+
+    /**
+     * Update payload for {@code original}: a fresh name, gender and status, same email – so the
+     * update exercises every field without tripping the unique-email check.
+     */
+    public User updateOf(User original) {
+        User fresh = next();
+        return new User(fresh.getName(), original.getEmail(), fresh.getGender(), fresh.getStatus());
+    }
+
+    /** Stops the generator; users still pooled are dropped. */
+    @Override
+    public void close() {
+        generator.interrupt();
+        try {
+            generator.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        pool.clear();
+        log.info("User data factory closed – {}", stats());
+    }
+
+    /**
+     * seed / run tag, users generated and handed out, generation rate (users per second of
+     * generator work), and how many {@link #next()} calls waited and for how long.
+     */
+    public Map<String, Object> stats() {
+        long busy = generateNanos.get();
+        Map<String, Object> s = new LinkedHashMap<>();
+        s.put("seed", seed);
+        s.put("runTag", runTag);
+        s.put("generated", generated.get());
+        s.put("consumed", consumed.get());
+        s.put("generatedPerSec", busy == 0 ? 0 : Math.round(generated.get() / (busy / 1e9)));
+        s.put("consumerWaits", consumerWaits.get());
+        s.put("consumerWaitMillis", TimeUnit.NANOSECONDS.toMillis(waitNanos.get()));
+        return s;
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────
+
+    private void generate() {
+        Random random = new Random(seed);
+        Faker faker = new Faker(Locale.ENGLISH, random);
+        long sequence = 0;
+        List<User> batch = new ArrayList<>(batchSize);
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                long start = System.nanoTime();
+                for (int i = 0; i < batchSize; i++) {
+                    batch.add(user(faker, random, ++sequence));
+                }
+                generateNanos.addAndGet(System.nanoTime() - start);
+                generated.addAndGet(batch.size());
+                for (User u : batch) {
+                    pool.put(u);   // blocks while the pool is full
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            // close() – exit quietly
+        } catch (RuntimeException e) {
+            log.error("User data generator failed", e);
+        }
+    }
+
+    private User user(Faker faker, Random random, long sequence) {
+        String first = faker.name().firstName();
+        String last  = faker.name().lastName();
+        String email = localPart(first) + "." + localPart(last) + "." + runTag + "." + sequence
+                + "@" + faker.internet().domainName();
+        return new User(first + " " + last, email,
+                GENDERS[random.nextInt(GENDERS.length)], STATUSES[random.nextInt(STATUSES.length)]);
+    }
+
+    /** Lower-case letters and digits only – names like O'Keefe must not break the address. */
+    private static String localPart(String name) {
+        String s = name.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "");
+        return s.isEmpty() ? "user" : s;
+    }
+}
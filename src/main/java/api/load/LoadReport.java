@@ -0,0 +1,101 @@
+package api.load;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import api.load.UserCrudLoadRunner.Operation;
+import api.load.UserCrudLoadRunner.OperationStats;
+import api.load.UserCrudLoadRunner.Settings;
+import utils.LatencyHistogram;
+
+/**
+ * Result of one {@link UserCrudLoadRunner} run, as a machine-readable JSON document:
+ * settings, achieved flow rate, end-to-end flow latency (every started flow, and split
+ * into flows that succeeded and flows with a failed step) and, per operation, request /
+ * error counts, throughput and latency percentiles (µs); plus how fast the payloads
+ * were generated and whether flows ever waited for them.
+ */
+public class LoadReport {
+
+    private static final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final Map<String, Object> data = new LinkedHashMap<>();
+
+    LoadReport(Settings settings, long flows, Duration elapsed, LatencyHistogram okFlows,
+               LatencyHistogram failedFlows, Map<Operation, OperationStats> stats, Map<String, Object> testData) {
+        LatencyHistogram flowLatency = new LatencyHistogram();
+        flowLatency.add(okFlows);
+        flowLatency.add(failedFlows);
+
+        Map<String, Object> shape = new LinkedHashMap<>();
+        shape.put("targetRps", settings.targetRps());
+        shape.put("rampUpSeconds", settings.rampUp().toSeconds());
+        shape.put("durationSeconds", settings.duration().toSeconds());
+        shape.put("maxConcurrency", settings.maxConcurrency());
+
+        Map<String, Object> operations = new LinkedHashMap<>();
+        stats.forEach((op, s) -> operations.put(op.name(), s.summary(elapsed)));
+
+        data.put("settings", shape);
+        data.put("flowsStarted", flows);
+        data.put("elapsedMillis", elapsed.toMillis());
+        data.put("flowsPerSec", flows / Math.max(elapsed.toNanos() / 1e9, 1e-9));
+        data.put("flowLatency", flowLatency.summary());
+        data.put("flowLatencyOk", okFlows.summary());
+        data.put("flowLatencyFailed", failedFlows.summary());
+        data.put("operations", operations);
+        data.put("testData", testData);
+    }
+
+    /** Report as nested maps – handy for assertions. */
+    public Map<String, Object> asMap() {
+        return data;
+    }
+
+    /** Total errors across every operation. */
+    public long totalErrors() {
+        return sumOverOperations("errors");
+    }
+
+    /**
+     * Requests actually sent, across every operation – a flow whose create failed sends one,
+     * not four, so this is the denominator for error rates.
+     */
+    public long totalRequests() {
+        return sumOverOperations("requests");
+    }
+
+    public String toJson() {
+        try {
+            return mapper.writeValueAsString(data);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not serialise load report", e);
+        }
+    }
+
+    /** Writes the JSON report, creating parent directories as needed. */
+    public Path writeTo(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        return Files.writeString(file, toJson());
+    }
+
+    String oneLine() {
+        return data.get("flowsStarted") + " flows in " + data.get("elapsedMillis") + " ms, "
+                + totalErrors() + " errors, flow latency " + data.get("flowLatency");
+    }
+
+    @SuppressWarnings("unchecked")
+    private long sumOverOperations(String field) {
+        long sum = 0;
+        for (Object op : ((Map<String, Object>) data.get("operations")).values()) {
+            sum += (Long) ((Map<String, Object>) op).get(field);
+        }
+        return sum;
+    }
+}
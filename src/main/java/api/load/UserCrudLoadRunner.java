@@ -0,0 +1,231 @@
+package api.load;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import api.clients.AsyncUserAPIClient;
+import api.data.UserDataFactory;
+import api.models.ApiResponse;
+import api.models.User;
+import config.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import utils.LatencyHistogram;
+
+/**
+ * Open-loop load generator for the create → get → update → delete user flow.
+ *
+ * Flows are started on a fixed schedule (the target rate, ramped linearly over
+ * {@code rampUp}), never "when the previous one finished", so a slow server cannot
+ * slow down the arrival rate.  Each flow runs on its own virtual thread; at most
+ * {@code maxConcurrency} flows talk to the server at once and the rest queue.
+ *
+ * Coordinated omission: an operation's latency is measured from when it SHOULD have
+ * started – the flow's scheduled time for CREATE, the previous step's completion for
+ * the others – so time spent queued behind a stalled server is counted, not hidden.
+ * The pure server-side view is reported separately as {@code serviceTime}.
+ *
+ * Payloads come from a {@link UserDataFactory} holding at least two seconds of flows,
+ * so building users never competes with the calls it times.
+ */
+public class UserCrudLoadRunner {
+
+    private static final Logger log = LogManager.getLogger(UserCrudLoadRunner.class);
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    public enum Operation { CREATE, GET, UPDATE, DELETE }
+
+    /** Load shape.  {@code fromConfig()} reads the {@code load.*} keys. */
+    public record Settings(double targetRps, Duration rampUp, Duration duration, int maxConcurrency) {
+
+        public Settings {
+            if (targetRps <= 0 || maxConcurrency <= 0 || duration.isZero() || duration.isNegative()) {
+                throw new IllegalArgumentException("Invalid load settings: " + targetRps + " rps, "
+                        + duration + ", maxConcurrency=" + maxConcurrency);
+            }
+        }
+
+        public static Settings fromConfig() {
+            return new Settings(
+                    Double.parseDouble(ConfigReader.resolve("load.rps", "10")),
+                    Duration.ofSeconds(ConfigReader.resolveInt("load.rampUp.seconds", 5)),
+                    Duration.ofSeconds(ConfigReader.resolveInt("load.duration.seconds", 30)),
+                    ConfigReader.resolveInt("load.maxConcurrency", 200));
+        }
+    }
+
+    private final Settings           settings;
+    private final AsyncUserAPIClient client;
+
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+    // Every started flow, split by outcome – dropping failed flows would hide the slow ones
+    private final LatencyHistogram okFlows     = new LatencyHistogram();
+    private final LatencyHistogram failedFlows = new LatencyHistogram();
+    private final String           runId       = UUID.randomUUID().toString().substring(0, 8);
+
+    public UserCrudLoadRunner(Settings settings, AsyncUserAPIClient client) {
+        this.settings = settings;
+        this.client   = client;
+        for (Operation op : Operation.values()) {
+            stats.put(op, new OperationStats());
+        }
+    }
+
+    /** Runs the whole schedule and waits for every started flow to finish. */
+    public LoadReport run() {
+        log.info("Load run {} – {} rps (ramp {}) for {}, maxConcurrency={}", runId,
+                settings.targetRps(), settings.rampUp(), settings.duration(), settings.maxConcurrency());
+
+        Semaphore inFlight = new Semaphore(settings.maxConcurrency());
+        long start;
+        long flows = 0;
+        long elapsed;
+        Map<String, Object> testData;
+
+        try (UserDataFactory users = UserDataFactory.fromConfig((int) Math.ceil(settings.targetRps() * 4))) {
+            users.awaitFilled(Duration.ofSeconds(30));   // Faker warm-up is not part of the run
+            start = System.nanoTime();
+            long end  = start + settings.duration().toNanos();
+            long next = start;
+            try (ExecutorService vthreads = Executors.newVirtualThreadPerTaskExecutor()) {
+                while (next < end) {
+                    long wait = next - System.nanoTime();
+                    if (wait > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    long scheduled = next;
+                    vthreads.submit(() -> runFlow(scheduled, inFlight, users));
+                    flows++;
+                    next += intervalNanos(next - start);
+                }
+            } // close() waits for the flows still in flight
+            elapsed  = System.nanoTime() - start;
+            testData = users.stats();
+        }
+
+        LoadReport report = new LoadReport(settings, flows, Duration.ofNanos(elapsed), okFlows, failedFlows, stats, testData);
+        log.info("Load run {} finished – {}", runId, report.oneLine());
+        return report;
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────
+
+    /** Gap to the next scheduled flow; the rate ramps linearly from ~0 to target. */
+    private long intervalNanos(long elapsedNanos) {
+        double rate = settings.targetRps();
+        long ramp = settings.rampUp().toNanos();
+        if (ramp > 0 && elapsedNanos < ramp) {
+            rate = Math.max(rate * elapsedNanos / ramp, Math.min(rate, 1.0));
+        }
+        return (long) (1_000_000_000L / rate);
+    }
+
+    private void runFlow(long scheduled, Semaphore inFlight, UserDataFactory users) {
+        inFlight.acquireUninterruptibly();
+        try {
+            User user = users.next();
+            User update = users.updateOf(user);
+
+            Step created = step(Operation.CREATE, scheduled, 201, () -> client.createUser(user));
+            if (created.response == null) {
+                failedFlows.recordNanos(created.end - scheduled);
+                return;
+            }
+            int id = idOf(created.response);
+
+            Step read = step(Operation.GET, created.end, 200, () -> client.getUser(id));
+            Step updated = step(Operation.UPDATE, read.end, 200, () -> client.updateUser(id, update));
+            Step deleted = step(Operation.DELETE, updated.end, 204, () -> client.deleteUser(id));
+
+            boolean ok = read.response != null && updated.response != null && deleted.response != null;
+            (ok ? okFlows : failedFlows).recordNanos(deleted.end - scheduled);
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    /**
+     * Executes one operation.  {@code since} is when it should have started;
+     * the returned response is null when the call failed or did not return {@code expected}.
+     */
+    private Step step(Operation op, long since, int expected, Supplier<CompletableFuture<ApiResponse>> call) {
+        OperationStats s = stats.get(op);
+        long sent = System.nanoTime();
+        ApiResponse response = null;
+        String outcome;
+        try {
+            response = call.get().join();
+            outcome = String.valueOf(response.statusCode());
+        } catch (RuntimeException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            outcome = cause.getClass().getSimpleName();
+        }
+        long end = System.nanoTime();
+
+        s.latency.recordNanos(end - since);
+        s.serviceTime.recordNanos(end - sent);
+        if (response != null && response.statusCode() == expected) {
+            s.ok.increment();
+            return new Step(response, end);
+        }
+        s.errors.increment();
+        s.errorsByOutcome.computeIfAbsent(outcome, k -> new LongAdder()).increment();
+        return new Step(null, end);
+    }
+
+    /** Jackson instead of JsonPath – the generator must stay cheap next to the calls it times. */
+    private static int idOf(ApiResponse response) {
+        try {
+            return mapper.readTree(response.body()).path("id").asInt();
+        } catch (IOException e) {
+            throw new IllegalStateException("Create response is not JSON: " + response.body(), e);
+        }
+    }
+
+    private record Step(ApiResponse response, long end) {}
+
+    /** Per-operation counters and histograms. */
+    static final class OperationStats {
+        final LatencyHistogram latency     = new LatencyHistogram();
+        final LatencyHistogram serviceTime = new LatencyHistogram();
+        final LongAdder        ok          = new LongAdder();
+        final LongAdder        errors      = new LongAdder();
+        final Map<String, LongAdder> errorsByOutcome = new ConcurrentHashMap<>();
+
+        Map<String, Object> summary(Duration elapsed) {
+            long okCount = ok.sum();
+            long errCount = errors.sum();
+            long all = okCount + errCount;
+            double seconds = Math.max(elapsed.toNanos() / 1e9, 1e-9);
+
+            Map<String, Long> byOutcome = new TreeMap<>();
+            errorsByOutcome.forEach((k, v) -> byOutcome.put(k, v.sum()));
+
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("requests", all);
+            m.put("ok", okCount);
+            m.put("errors", errCount);
+            m.put("errorRate", all == 0 ? 0.0 : (double) errCount / all);
+            m.put("throughputPerSec", all / seconds);
+            m.put("latency", latency.summary());
+            m.put("serviceTime", serviceTime.summary());
+            m.put("errorsByOutcome", byOutcome);
+            return m;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package api.metrics;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import config.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import utils.LatencyHistogram;
+
+/**
+ * Run-wide HTTP metrics for every API call, recorded by {@link HttpMetricsFilter}.
+ *
+ * Calls are grouped by endpoint – method plus path with numeric / UUID segments folded
+ * to {@code {id}}, so {@code GET /users/7001234} and {@code GET /users/7001235} share one
+ * series.  Each series keeps histograms of total time and time to first byte, request
+ * and response byte totals, and a count per status code.
+ *
+ * Each thread also keeps the calls of the test it is running, for a per-test attachment.
+ */
+public final class HttpMetrics {
+
+    private static final Logger log = LogManager.getLogger(HttpMetrics.class);
+
+    private static final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private static final Pattern ID_SEGMENT =
+            Pattern.compile("/(\\d+|[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12})(?=/|$)");
+
+    private static final Map<String, Series> endpoints = new ConcurrentHashMap<>();
+
+    private static final ThreadLocal<List<Call>> testCalls = new ThreadLocal<>();
+
+    private HttpMetrics() {}
+
+    /** One HTTP exchange as seen by the filter. */
+    public record Call(String endpoint, int status, long totalMicros, long ttfbMicros,
+                       long requestBytes, long responseBytes) {
+
+        @Override
+        public String toString() {
+            return String.format("%-28s %3d %8.1f ms (ttfb %6.1f ms) %7d B out %8d B in",
+                    endpoint, status, totalMicros / 1000.0, ttfbMicros / 1000.0, requestBytes, responseBytes);
+        }
+    }
+
+    /** {@code GET /users/123} → {@code GET /users/{id}} */
+    public static String endpoint(String method, String path) {
+        String p = path == null || path.isEmpty() ? "/" : path;
+        int query = p.indexOf('?');
+        if (query >= 0) {
+            p = p.substring(0, query);
+        }
+        return method + " " + ID_SEGMENT.matcher(p).replaceAll("/{id}");
+    }
+
+    static void record(Call call) {
+        endpoints.computeIfAbsent(call.endpoint(), e -> new Series()).add(call);
+        List<Call> calls = testCalls.get();
+        if (calls != null) {
+            calls.add(call);
+        }
+    }
+
+    /** Starts collecting the current thread's calls for one test. */
+    public static void beginTest() {
+        testCalls.set(new ArrayList<>());
+    }
+
+    /** Stops collecting and returns the calls the test made, in order. */
+    public static List<Call> endTest() {
+        List<Call> calls = testCalls.get();
+        testCalls.remove();
+        return calls == null ? List.of() : List.copyOf(calls);
+    }
+
+    /** endpoint → count / statuses / total + ttfb percentiles / bytes */
+    public static Map<String, Map<String, Object>> snapshot() {
+        Map<String, Map<String, Object>> out = new TreeMap<>();
+        endpoints.forEach((endpoint, s) -> out.put(endpoint, s.summary()));
+        return out;
+    }
+
+    /** Writes {@code http-metrics.json} to {@code dir}; no-op when nothing was recorded. */
+    public static void export(Path dir) {
+        if (endpoints.isEmpty()) {
+            return;
+        }
+        try {
+            Files.createDirectories(dir);
+            Path file = dir.resolve("http-metrics.json");
+            Files.writeString(file, mapper.writeValueAsString(snapshot()));
+            log.info("HTTP metrics written to {}", file);
+        } catch (IOException e) {
+            log.error("Could not write HTTP metrics to {}: {}", dir, e.getMessage());
+        }
+    }
+
+    /** Export directory from {@code api.metrics.dir}, default target/api-metrics. */
+    public static Path defaultDir() {
+        return Paths.get(ConfigReader.resolve("api.metrics.dir", "target/api-metrics"));
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────
+
+    private static final class Series {
+
+        final LatencyHistogram        total         = new LatencyHistogram();
+        final LatencyHistogram        ttfb          = new LatencyHistogram();
+        final LongAdder               requestBytes  = new LongAdder();
+        final LongAdder               responseBytes = new LongAdder();
+        final Map<Integer, LongAdder> statuses      = new ConcurrentHashMap<>();
+
+        void add(Call call) {
+            total.recordMicros(call.totalMicros());
+            ttfb.recordMicros(call.ttfbMicros());
+            requestBytes.add(call.requestBytes());
+            responseBytes.add(call.responseBytes());
+            statuses.computeIfAbsent(call.status(), s -> new LongAdder()).increment();
+        }
+
+        Map<String, Object> summary() {
+            Map<Integer, Long> byStatus = new TreeMap<>();
+            statuses.forEach((status, n) -> byStatus.put(status, n.sum()));
+
+            Map<String, Object> s = new LinkedHashMap<>();
+            s.put("count", total.count());
+            s.put("statuses", byStatus);
+            s.put("total", total.summary());
+            s.put("ttfb", ttfb.summary());
+            s.put("requestBytes", requestBytes.sum());
+            s.put("responseBytes", responseBytes.sum());
+            return s;
+        }
+    }
+}
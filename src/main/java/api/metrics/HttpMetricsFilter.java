@@ -0,0 +1,52 @@
+package api.metrics;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * RestAssured filter that records every call into {@link HttpMetrics}.
+ *
+ * Total time runs from handing the request on until the whole body has been read.
+ * Time to first byte is RestAssured's own response time, which stops once the status
+ * line and headers are in – the body is read lazily afterwards.  Byte counts are the
+ * serialized request body and the received response body.
+ *
+ * Add it to a spec with {@code addFilter(new HttpMetricsFilter())}; it keeps no state of
+ * its own, so one instance can serve every thread.
+ */
+public class HttpMetricsFilter implements Filter {
+
+    @Override
+    public Response filter(FilterableRequestSpecification request, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        long start = System.nanoTime();
+        Response response = ctx.next(request, responseSpec);
+        byte[] body = response.asByteArray();
+        long totalMicros = (System.nanoTime() - start) / 1_000;
+
+        HttpMetrics.record(new HttpMetrics.Call(
+                HttpMetrics.endpoint(request.getMethod(), request.getUserDefinedPath()),
+                response.statusCode(),
+                totalMicros,
+                Math.min(totalMicros, response.timeIn(TimeUnit.MICROSECONDS)),
+                requestBytes(request.getBody()),
+                body == null ? 0 : body.length));
+        return response;
+    }
+
+    private static long requestBytes(Object body) {
+        if (body == null) {
+            return 0;
+        }
+        if (body instanceof byte[] bytes) {
+            return bytes.length;
+        }
+        return body.toString().getBytes(StandardCharsets.UTF_8).length;
+    }
+}
@@ -0,0 +1,20 @@
+package api.models;
+
+import java.time.Duration;
+
+import io.restassured.path.json.JsonPath;
+
+/**
+ * Immutable result of an asynchronous API call.
+ *
+ * @param statusCode HTTP status
+ * @param body       response body as text (empty for 204)
+ * @param latency    time from sending the request to receiving the full body
+ */
+public record ApiResponse(int statusCode, String body, Duration latency) {
+
+    /** Same JsonPath view RestAssured's {@code Response.jsonPath()} gives, so assertions read alike. */
+    public JsonPath jsonPath() {
+        return JsonPath.from(body);
+    }
+}
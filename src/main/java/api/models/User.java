@@ -8,7 +8,7 @@ public class User {
 	private String status;
 
 	public User() {
-		System.out.println("User Constructor");
+		// for Jackson
 	}
 
 	public User(String name, String email, String gender, String status) {
@@ -0,0 +1,329 @@
+package api.stub;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import config.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * In-process stand-in for the gorest {@code /users} API.
+ *
+ * Implements the CRUD contract {@code UserAPIClient} relies on, backed by an in-memory
+ * concurrent store:
+ *  - POST   /users       → 201 + user, 422 on invalid / duplicate email
+ *  - GET    /users       → 200 + list
+ *  - GET    /users/{id}  → 200 + user, 404 when unknown
+ *  - PUT    /users/{id}  → 200 + user, 404, 422   (PATCH behaves the same)
+ *  - DELETE /users/{id}  → 204, 404
+ * Writes without a Bearer token get 401, like the real service.
+ *
+ * Fault injection (config or -D):
+ *  - api.stub.latency.ms  fixed delay added to every response
+ *  - api.stub.error.rate  probability 0.0–1.0 of answering 503 instead
+ *
+ * Requests are handled on virtual threads, so injected latency never starves the server.
+ */
+public final class UserStubServer implements AutoCloseable {
+
+    private static final Logger log = LogManager.getLogger(UserStubServer.class);
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    // Deep accept queue – load tests open hundreds of connections at once
+    private static final int BACKLOG = 1024;
+
+    private static final Set<String> GENDERS  = Set.of("male", "female");
+    private static final Set<String> STATUSES = Set.of("active", "inactive");
+
+    private static volatile UserStubServer shared;
+
+    static {
+        // The JDK server leaves Nagle on by default, which adds ~40 ms of delayed-ACK
+        // stall to every small keep-alive response.  Must be set before the first
+        // HttpServer is created (the JDK reads it once).
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer      server;
+    private final ExecutorService executor;
+    private final String          usersPath;
+    private final long            latencyMs;
+    private final double          errorRate;
+
+    private final Map<Integer, Map<String, Object>> users  = new ConcurrentHashMap<>();
+    private final Map<String, Integer>              emails = new ConcurrentHashMap<>();
+    private final AtomicInteger                     nextId = new AtomicInteger(1000);
+
+    /**
+     * Starts a stub on {@code 127.0.0.1:port} (0 = any free port).
+     *
+     * @param basePath  path prefix, e.g. {@code /public/v2}
+     */
+    public UserStubServer(int port, String basePath, long latencyMs, double errorRate) throws IOException {
+        this.usersPath = basePath + "/users";
+        this.latencyMs = latencyMs;
+        this.errorRate = errorRate;
+
+        server   = HttpServer.create(new InetSocketAddress("127.0.0.1", port), BACKLOG);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext(usersPath, this::handle);
+        server.start();
+        log.info("User stub listening on {}{} (latency={} ms, errorRate={})",
+                baseUri(), usersPath, latencyMs, errorRate);
+    }
+
+    /**
+     * Returns the JVM-wide stub, starting it on first use with settings from config.
+     * Stopped automatically when the JVM exits.
+     */
+    public static UserStubServer shared() {
+        if (shared == null) {
+            synchronized (UserStubServer.class) {
+                if (shared == null) {
+                    try {
+                        UserStubServer s = new UserStubServer(
+                                ConfigReader.resolveInt("api.stub.port", 0),
+                                ConfigReader.get("base.path"),
+                                ConfigReader.resolveInt("api.stub.latency.ms", 0),
+                                Double.parseDouble(ConfigReader.resolve("api.stub.error.rate", "0")));
+                        Runtime.getRuntime().addShutdownHook(new Thread(s::close, "user-stub-shutdown"));
+                        shared = s;
+                    } catch (IOException e) {
+                        throw new IllegalStateException("Could not start the user API stub", e);
+                    }
+                }
+            }
+        }
+        return shared;
+    }
+
+    /** e.g. {@code http://127.0.0.1:54321} */
+    public String baseUri() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /** Number of users currently stored. */
+    public int size() {
+        return users.size();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+        log.info("User stub stopped");
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────
+
+    private void handle(HttpExchange ex) throws IOException {
+        try (ex) {
+            if (latencyMs > 0) {
+                Thread.sleep(latencyMs);
+            }
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                send(ex, 503, Map.of("message", "Injected failure"));
+                return;
+            }
+            route(ex);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("Stub failed on {} {}", ex.getRequestMethod(), ex.getRequestURI(), e);
+            send(ex, 500, Map.of("message", "Internal stub error"));
+        }
+    }
+
+    private void route(HttpExchange ex) throws IOException {
+        String method = ex.getRequestMethod();
+        String rest   = ex.getRequestURI().getPath().substring(usersPath.length());
+
+        if (!"GET".equals(method) && !hasBearer(ex)) {
+            send(ex, 401, Map.of("message", "Authentication failed"));
+            return;
+        }
+
+        if (rest.isEmpty() || "/".equals(rest)) {
+            switch (method) {
+                case "GET"  -> send(ex, 200, list());
+                case "POST" -> create(ex);
+                default     -> send(ex, 405, Map.of("message", "Method not allowed"));
+            }
+            return;
+        }
+
+        Integer id = parseId(rest);
+        Map<String, Object> existing = id == null ? null : users.get(id);
+        if (existing == null) {
+            send(ex, 404, Map.of("message", "Resource not found"));
+            return;
+        }
+        switch (method) {
+            case "GET"          -> send(ex, 200, existing);
+            case "PUT", "PATCH" -> update(ex, id);
+            case "DELETE"       -> delete(ex, id);
+            default             -> send(ex, 405, Map.of("message", "Method not allowed"));
+        }
+    }
+
+    private void create(HttpExchange ex) throws IOException {
+        Map<String, Object> body = readBody(ex);
+        List<Map<String, String>> errors = validate(body, true);
+        if (!errors.isEmpty()) {
+            send(ex, 422, errors);
+            return;
+        }
+
+        int id = nextId.incrementAndGet();
+        String email = (String) body.get("email");
+        // putIfAbsent makes the uniqueness check atomic under concurrent creates
+        if (emails.putIfAbsent(email.toLowerCase(), id) != null) {
+            send(ex, 422, List.of(fieldError("email", "has already been taken")));
+            return;
+        }
+
+        Map<String, Object> user = toUser(id, body, Map.of());
+        users.put(id, user);
+        send(ex, 201, user);
+    }
+
+    private void update(HttpExchange ex, int id) throws IOException {
+        Map<String, Object> body = readBody(ex);
+        List<Map<String, String>> errors = validate(body, false);
+        if (!errors.isEmpty()) {
+            send(ex, 422, errors);
+            return;
+        }
+
+        Map<String, Object> current = users.get(id);
+        if (current == null) {
+            send(ex, 404, Map.of("message", "Resource not found"));
+            return;
+        }
+        String oldEmail = ((String) current.get("email")).toLowerCase();
+        String newEmail = body.containsKey("email") ? ((String) body.get("email")).toLowerCase() : oldEmail;
+        if (!newEmail.equals(oldEmail)) {
+            if (emails.putIfAbsent(newEmail, id) != null) {
+                send(ex, 422, List.of(fieldError("email", "has already been taken")));
+                return;
+            }
+            emails.remove(oldEmail, id);
+        }
+
+        Map<String, Object> updated = toUser(id, body, current);
+        users.put(id, updated);
+        send(ex, 200, updated);
+    }
+
+    private void delete(HttpExchange ex, int id) throws IOException {
+        Map<String, Object> removed = users.remove(id);
+        if (removed == null) {
+            send(ex, 404, Map.of("message", "Resource not found"));
+            return;
+        }
+        emails.remove(((String) removed.get("email")).toLowerCase(), id);
+        ex.sendResponseHeaders(204, -1);
+    }
+
+    private List<Map<String, Object>> list() {
+        List<Map<String, Object>> all = new ArrayList<>(users.values());
+        all.sort(Comparator.comparing((Map<String, Object> u) -> (Integer) u.get("id")).reversed());
+        return all;
+    }
+
+    /** gorest-style field errors; {@code required} is true for create, false for partial updates. */
+    private static List<Map<String, String>> validate(Map<String, Object> body, boolean required) {
+        List<Map<String, String>> errors = new ArrayList<>();
+        for (String field : List.of("name", "email", "gender", "status")) {
+            Object value = body.get(field);
+            if (value == null && !required) {
+                continue;
+            }
+            if (!(value instanceof String s) || s.isBlank()) {
+                errors.add(fieldError(field, "can't be blank"));
+            } else if ("email".equals(field) && !s.matches("[^@\\s]+@[^@\\s]+\\.[^@\\s]+")) {
+                errors.add(fieldError(field, "is invalid"));
+            } else if ("gender".equals(field) && !GENDERS.contains(s)) {
+                errors.add(fieldError(field, "can't be blank, can be male of female"));
+            } else if ("status".equals(field) && !STATUSES.contains(s)) {
+                errors.add(fieldError(field, "can't be blank"));
+            }
+        }
+        return errors;
+    }
+
+    private static Map<String, Object> toUser(int id, Map<String, Object> body, Map<String, Object> base) {
+        Map<String, Object> user = new LinkedHashMap<>();
+        user.put("id", id);
+        for (String field : List.of("name", "email", "gender", "status")) {
+            user.put(field, body.containsKey(field) ? body.get(field) : base.get(field));
+        }
+        return Collections.unmodifiableMap(user);
+    }
+
+    private static Map<String, String> fieldError(String field, String message) {
+        Map<String, String> error = new LinkedHashMap<>();
+        error.put("field", field);
+        error.put("message", message);
+        return error;
+    }
+
+    private static Integer parseId(String rest) {
+        try {
+            return Integer.valueOf(rest.substring(1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static boolean hasBearer(HttpExchange ex) {
+        String auth = ex.getRequestHeaders().getFirst("Authorization");
+        return auth != null && auth.startsWith("Bearer ") && auth.length() > "Bearer ".length();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> readBody(HttpExchange ex) throws IOException {
+        try (InputStream in = ex.getRequestBody()) {
+            byte[] bytes = in.readAllBytes();
+            if (bytes.length == 0) {
+                return Map.of();
+            }
+            return mapper.readValue(bytes, Map.class);
+        } catch (JsonProcessingException e) {
+            return Map.of();
+        }
+    }
+
+    private static void send(HttpExchange ex, int status, Object body) throws IOException {
+        byte[] json = mapper.writeValueAsString(body).getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        ex.sendResponseHeaders(status, json.length);
+        try (OutputStream out = ex.getResponseBody()) {
+            out.write(json);
+        }
+    }
+}
@@ -64,4 +64,35 @@ public class ConfigReader {
     public static String getOrDefault(String key, String defaultValue) {
         return prop.getProperty(key, defaultValue).trim();
     }
+
+    /**
+     * Resolves {@code key} from a JVM system property first, then config.properties,
+     * then {@code defaultValue} – lets CI flip a switch with {@code -Dkey=value}
+     * without editing the file.
+     */
+    public static String resolve(String key, String defaultValue) {
+        String value = System.getProperty(key);
+        if (value == null || value.isBlank()) {
+            value = prop.getProperty(key, defaultValue);
+        }
+        return value == null ? null : value.trim();
+    }
+
+    /** Integer flavour of {@link #resolve(String, String)}. */
+    public static int resolveInt(String key, int defaultValue) {
+        String value = resolve(key, null);
+        if (value == null || value.isEmpty()) return defaultValue;
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException(
+                "Config key '" + key + "' must be an integer but was '" + value + "'", e);
+        }
+    }
+
+    /** Boolean flavour of {@link #resolve(String, String)}. */
+    public static boolean resolveBoolean(String key, boolean defaultValue) {
+        String value = resolve(key, null);
+        return value == null || value.isEmpty() ? defaultValue : Boolean.parseBoolean(value);
+    }
 }
\ No newline at end of file
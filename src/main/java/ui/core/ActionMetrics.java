@@ -0,0 +1,194 @@
+package ui.core;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import config.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import utils.LatencyHistogram;
+
+/**
+ * Run-wide timings of every Page / Locator driver action, recorded by {@link InstrumentedPage}.
+ *
+ * Samples are aggregated twice – per action type ({@code click}, {@code innerText}…) and
+ * per action + selector – into lock-free {@link LatencyHistogram}s.  At suite end
+ * {@link #export(Path)} writes {@code ui-actions.json} and a Prometheus text-format
+ * {@code ui-actions.prom} (summary metrics with p50/p95/p99 quantiles).
+ *
+ * Each thread also keeps the steps of the test it is running, so the slowest ones can
+ * be attached to that test's report.
+ */
+public final class ActionMetrics {
+
+    private static final Logger log = LogManager.getLogger(ActionMetrics.class);
+
+    private static final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private static final Map<Key, Series>    bySelector = new ConcurrentHashMap<>();
+    private static final Map<String, Series> byAction   = new ConcurrentHashMap<>();
+
+    private static final ThreadLocal<List<Step>> testSteps = new ThreadLocal<>();
+
+    private ActionMetrics() {}
+
+    /** One timed driver call. */
+    public record Step(String action, String selector, long micros, boolean failed) {
+
+        @Override
+        public String toString() {
+            return String.format("%8.1f ms  %-16s %s%s", micros / 1000.0, action, selector, failed ? "  (failed)" : "");
+        }
+    }
+
+    static void record(String action, String selector, long nanos, boolean failed) {
+        long micros = nanos / 1_000;
+        bySelector.computeIfAbsent(new Key(action, selector), k -> new Series()).add(micros, failed);
+        byAction.computeIfAbsent(action, a -> new Series()).add(micros, failed);
+
+        List<Step> steps = testSteps.get();
+        if (steps != null) {
+            steps.add(new Step(action, selector, micros, failed));
+        }
+    }
+
+    /** Starts collecting the current thread's steps for one test. */
+    public static void beginTest() {
+        testSteps.set(new ArrayList<>());
+    }
+
+    /** Stops collecting and returns the {@code limit} slowest steps of the test, slowest first. */
+    public static List<Step> endTest(int limit) {
+        List<Step> steps = testSteps.get();
+        testSteps.remove();
+        if (steps == null) {
+            return List.of();
+        }
+        return steps.stream()
+                .sorted(Comparator.comparingLong(Step::micros).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    /** action → count / errors / p50 / p95 / p99 / max (ms) */
+    public static Map<String, Map<String, Object>> byAction() {
+        Map<String, Map<String, Object>> out = new TreeMap<>();
+        byAction.forEach((action, s) -> out.put(action, s.summary()));
+        return out;
+    }
+
+    /** Every sample whose selector label matches {@code selector}, across all actions, merged into one histogram. */
+    public static LatencyHistogram merged(Predicate<String> selector) {
+        LatencyHistogram merged = new LatencyHistogram();
+        bySelector.forEach((key, series) -> {
+            if (selector.test(key.selector())) {
+                merged.add(series.histogram);
+            }
+        });
+        return merged;
+    }
+
+    /** Writes {@code ui-actions.json} and {@code ui-actions.prom} to {@code dir}; no-op when nothing was recorded. */
+    public static void export(Path dir) {
+        if (byAction.isEmpty()) {
+            return;
+        }
+        List<Map<String, Object>> selectors = new ArrayList<>();
+        bySelector.entrySet().stream()
+                .sorted(Comparator.comparing((Map.Entry<Key, Series> e) -> e.getKey().action())
+                        .thenComparing(e -> e.getKey().selector()))
+                .forEach(e -> {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    row.put("action", e.getKey().action());
+                    row.put("selector", e.getKey().selector());
+                    row.putAll(e.getValue().summary());
+                    selectors.add(row);
+                });
+
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("byAction", byAction());
+        json.put("bySelector", selectors);
+
+        try {
+            Files.createDirectories(dir);
+            Files.writeString(dir.resolve("ui-actions.json"), mapper.writeValueAsString(json));
+            Files.writeString(dir.resolve("ui-actions.prom"), prometheus());
+            log.info("UI action metrics written to {} – {}", dir, byAction());
+        } catch (IOException e) {
+            log.error("Could not write UI action metrics to {}: {}", dir, e.getMessage());
+        }
+    }
+
+    /** Export directory from {@code ui.metrics.dir}, default target/ui-metrics. */
+    public static Path defaultDir() {
+        return Paths.get(ConfigReader.resolve("ui.metrics.dir", "target/ui-metrics"));
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────
+
+    private static String prometheus() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("# HELP ui_action_duration_seconds Playwright driver call latency by action and selector\n");
+        sb.append("# TYPE ui_action_duration_seconds summary\n");
+        bySelector.forEach((key, s) -> {
+            String labels = "action=\"" + escape(key.action()) + "\",selector=\"" + escape(key.selector()) + "\"";
+            for (double q : new double[] {0.5, 0.95, 0.99}) {
+                sb.append("ui_action_duration_seconds{").append(labels).append(",quantile=\"").append(q).append("\"} ")
+                  .append(s.histogram.valueAtPercentile(q * 100) / 1e6).append('\n');
+            }
+            sb.append("ui_action_duration_seconds_sum{").append(labels).append("} ")
+              .append(s.histogram.meanMicros() * s.histogram.count() / 1e6).append('\n');
+            sb.append("ui_action_duration_seconds_count{").append(labels).append("} ")
+              .append(s.histogram.count()).append('\n');
+        });
+        sb.append("# HELP ui_action_errors_total Playwright driver calls that threw\n");
+        sb.append("# TYPE ui_action_errors_total counter\n");
+        byAction.forEach((action, s) ->
+                sb.append("ui_action_errors_total{action=\"").append(escape(action)).append("\"} ")
+                  .append(s.errors.sum()).append('\n'));
+        return sb.toString();
+    }
+
+    private static String escape(String label) {
+        return label.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private record Key(String action, String selector) {}
+
+    private static final class Series {
+
+        final LatencyHistogram histogram = new LatencyHistogram();
+        final LongAdder        errors    = new LongAdder();
+
+        void add(long micros, boolean failed) {
+            histogram.recordMicros(micros);
+            if (failed) {
+                errors.increment();
+            }
+        }
+
+        Map<String, Object> summary() {
+            Map<String, Object> s = new LinkedHashMap<>();
+            s.put("count", histogram.count());
+            s.put("errors", errors.sum());
+            s.put("p50Ms", histogram.valueAtPercentile(50) / 1000.0);
+            s.put("p95Ms", histogram.valueAtPercentile(95) / 1000.0);
+            s.put("p99Ms", histogram.valueAtPercentile(99) / 1000.0);
+            s.put("maxMs", histogram.maxMicros() / 1000.0);
+            return s;
+        }
+    }
+}
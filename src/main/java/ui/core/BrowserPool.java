@@ -0,0 +1,238 @@
+package ui.core;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserType;
+import com.microsoft.playwright.Playwright;
+import config.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Per-worker pool of warm browsers.
+ *
+ * Each worker thread owns exactly one {@link Playwright} driver plus one {@link Browser}
+ * per (browser type, headless) combination it has asked for.  They live for the whole
+ * suite; only BrowserContexts are created and disposed per test class / method.
+ *
+ * A pooled browser is recycled (closed and relaunched) when:
+ *  - it has handed out {@code browser.recycleAfter} contexts (default 50, 0 = never), or
+ *  - it is no longer connected (crashed / killed), or a caller reports it broken via
+ *    {@link #invalidate(String, boolean)}.
+ *
+ * With {@code browser.server.enabled=true} the pooled browsers are connections to shared
+ * {@link BrowserServers} instead of browsers of their own; recycling then just reconnects.
+ *
+ * Playwright objects are thread-affine, so a thread only ever touches its own slot.
+ * The one exception is {@link #shutdown()}, which runs at suite end once every worker
+ * is idle.
+ */
+public final class BrowserPool {
+
+    private static final Logger log = LogManager.getLogger(BrowserPool.class);
+
+    private static final int RECYCLE_AFTER = ConfigReader.resolveInt("browser.recycleAfter", 50);
+
+    private static final ThreadLocal<Worker> worker  = new ThreadLocal<>();
+    private static final Set<Worker>         workers = ConcurrentHashMap.newKeySet();
+
+    // Counters shown at shutdown – proof that launches no longer scale with test classes
+    private static final AtomicLong driverStarts   = new AtomicLong();
+    private static final AtomicLong launches       = new AtomicLong();
+    private static final AtomicLong reuses         = new AtomicLong();
+    private static final AtomicLong recycles       = new AtomicLong();
+    private static final AtomicLong crashRecycles  = new AtomicLong();
+    private static final AtomicLong launchNanos    = new AtomicLong();
+
+    private BrowserPool() {}
+
+    /**
+     * Returns the current thread's warm browser for {@code browserName}, launching it
+     * on first use (or after recycling).  Every call counts as one context hand-out.
+     *
+     * @param browserName  "chromium" | "firefox" | "webkit"  (case-insensitive)
+     * @param headless     run without a visible window when true
+     */
+    public static Browser acquire(String browserName, boolean headless) {
+        Worker w = currentWorker();
+        String key = key(browserName, headless);
+        Slot slot = w.slots.get(key);
+
+        if (slot != null && !slot.browser.isConnected()) {
+            log.warn("Pooled '{}' browser is disconnected – relaunching", key);
+            crashRecycles.incrementAndGet();
+            w.slots.remove(key);
+            slot = null;
+        } else if (slot != null && RECYCLE_AFTER > 0 && slot.contexts >= RECYCLE_AFTER) {
+            log.info("Pooled '{}' browser served {} contexts – recycling", key, slot.contexts);
+            recycles.incrementAndGet();
+            closeQuietly(slot.browser);
+            w.slots.remove(key);
+            slot = null;
+        }
+
+        if (slot == null) {
+            slot = new Slot(launch(w.playwright, browserName, headless));
+            w.slots.put(key, slot);
+        } else {
+            reuses.incrementAndGet();
+        }
+        slot.contexts++;
+        return slot.browser;
+    }
+
+    /**
+     * Drops the current thread's browser for {@code browserName} so the next
+     * {@link #acquire} relaunches it.  Call when the browser misbehaves (e.g. newContext fails).
+     */
+    public static void invalidate(String browserName, boolean headless) {
+        Worker w = worker.get();
+        if (w == null) return;
+        Slot slot = w.slots.remove(key(browserName, headless));
+        if (slot != null) {
+            crashRecycles.incrementAndGet();
+            closeQuietly(slot.browser);
+        }
+    }
+
+    /**
+     * Closes the current thread's browsers and driver.  Use from worker threads that are
+     * about to die (e.g. a private executor); TestNG workers are cleaned up by {@link #shutdown()}.
+     */
+    public static void releaseCurrentThread() {
+        Worker w = worker.get();
+        if (w != null) {
+            workers.remove(w);
+            worker.remove();
+            w.close();
+        }
+    }
+
+    /**
+     * Closes every pooled browser and driver, then logs the counters.
+     * Safe to call more than once; must only run when no test is using a browser.
+     */
+    public static void shutdown() {
+        for (Worker w : workers) {
+            w.close();
+        }
+        workers.clear();
+        log.info("BrowserPool shut down – {}", stats());
+        if (BrowserServers.enabled()) {
+            log.info("Browser servers – {}", BrowserServers.stats());
+            if (ConfigReader.resolveBoolean("browser.server.stopOnExit", false)) {
+                BrowserServers.stopIdle();
+            }
+        }
+    }
+
+    /** Snapshot of the pool counters. */
+    public static Stats stats() {
+        return new Stats(driverStarts.get(), launches.get(), reuses.get(), recycles.get(),
+                crashRecycles.get(), TimeUnit.NANOSECONDS.toMillis(launchNanos.get()));
+    }
+
+    /**
+     * Pool counters.  {@code driverStarts} counts Playwright driver processes (one per worker,
+     * also with browser servers); {@code reuses} is the number of contexts served by an
+     * already-running browser; {@code launchMillis} is the total wall-clock time spent
+     * launching browsers.
+     */
+    public record Stats(long driverStarts, long launches, long reuses, long recycles,
+                        long crashRecycles, long launchMillis) {}
+
+    // ─────────────────────────────────────────────────────────────────────────
+
+    private static Worker currentWorker() {
+        Worker w = worker.get();
+        if (w == null || w.closed) {
+            log.info("Starting Playwright driver for worker '{}'", Thread.currentThread().getName());
+            w = new Worker(Playwright.create());
+            driverStarts.incrementAndGet();
+            worker.set(w);
+            workers.add(w);
+        }
+        return w;
+    }
+
+    private static Browser launch(Playwright pw, String browserName, boolean headless) {
+        if (BrowserServers.enabled()) {
+            // Connected, not launched: closing it later only drops the connection
+            return BrowserServers.connect(pw, browserName, headless);
+        }
+        log.info("Launching '{}' browser (headless={})", browserName, headless);
+
+        // Switch expression – clear, exhaustive, no fall-through risk
+        BrowserType browserType = switch (browserName.toLowerCase()) {
+            case "firefox"  -> pw.firefox();
+            case "webkit"   -> pw.webkit();
+            case "chromium" -> pw.chromium();
+            default         -> {
+                log.warn("Unknown browser '{}' – defaulting to chromium", browserName);
+                yield pw.chromium();
+            }
+        };
+
+        BrowserType.LaunchOptions launchOptions = new BrowserType.LaunchOptions()
+                .setHeadless(headless)
+                .setSlowMo(headless ? 0 : 50); // slight slowdown in headed mode aids debugging
+
+        long start = System.nanoTime();
+        Browser b = browserType.launch(launchOptions);
+        launchNanos.addAndGet(System.nanoTime() - start);
+        launches.incrementAndGet();
+        return b;
+    }
+
+    private static String key(String browserName, boolean headless) {
+        return browserName.toLowerCase() + (headless ? "" : "-headed");
+    }
+
+    private static void closeQuietly(Browser b) {
+        try {
+            b.close();
+        } catch (Exception e) {
+            log.warn("Error closing pooled browser: {}", e.getMessage());
+        }
+    }
+
+    /** One pooled browser and how many contexts it has served since launch. */
+    private static final class Slot {
+        final Browser browser;
+        int contexts;
+
+        Slot(Browser browser) {
+            this.browser = browser;
+        }
+    }
+
+    /** The Playwright driver and browsers owned by a single thread. */
+    private static final class Worker {
+        final Playwright         playwright;
+        final Map<String, Slot>  slots = new HashMap<>();
+        volatile boolean         closed;
+
+        Worker(Playwright playwright) {
+            this.playwright = playwright;
+        }
+
+        /** Browsers first, Playwright LAST – closing it earlier crashes some platforms. */
+        void close() {
+            if (closed) return;
+            closed = true;
+            slots.values().forEach(s -> closeQuietly(s.browser));
+            slots.clear();
+            try {
+                playwright.close();
+            } catch (Exception e) {
+                log.error("Error closing Playwright", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,456 @@
+package ui.core;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserType;
+import com.microsoft.playwright.Playwright;
+import com.microsoft.playwright.PlaywrightException;
+import com.microsoft.playwright.impl.driver.Driver;
+import config.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Machine-wide browser servers that every worker thread and forked JVM connects to.
+ *
+ * With {@code browser.server.enabled=true} {@link BrowserPool} no longer launches a browser
+ * per worker; it connects to one of {@code browser.server.count} Playwright browser servers
+ * per (browser type, headless) combination and gets its own isolated contexts on it.  Browser
+ * processes – the bulk of the memory – then follow the server count, not
+ * {@code thread-count × forkCount}.  Each worker thread still starts its own Playwright
+ * driver (a Node process, via {@code Playwright.create()}) to talk to the server, so one
+ * driver process per worker remains; {@link BrowserPool#stats()} counts them as
+ * {@code driverStarts}, next to {@code launches}, which stays at zero in server mode.
+ *
+ * Everything is coordinated through files in {@code browser.server.dir} (default
+ * {@code <tmpdir>/playwright-servers}), so forks of one run – and later runs – share the
+ * same servers:
+ *  - {@code <key>-<n>.json} records a server's pid and websocket endpoint.  The first process
+ *    that finds it missing or unhealthy relaunches the server while holding {@code <key>-<n>.lock}.
+ *  - Each connection holds one of {@code browser.server.maxConnections} slot locks of its
+ *    server, so this caps connected workers per server across all JVMs.  A worker keeps at
+ *    most one context open per browser, so it bounds open contexts too – but it counts
+ *    connections, not the contexts a worker opens over time.  The OS drops the locks of a
+ *    JVM that dies, so slots never leak.
+ *  - Servers run from a private copy of the Playwright driver, because the copy each JVM
+ *    extracts is deleted when that JVM exits – the servers outlive it on purpose.
+ *
+ * A server is healthy when its process is alive and its port accepts connections.  A dropped
+ * connection shows up as a disconnected browser in {@link BrowserPool}, whose relaunch path
+ * comes back here and reconnects – to a restarted server if the old one died.
+ *
+ * Servers keep running after the suite, so the next run finds them warm.  With
+ * {@code browser.server.stopOnExit=true} a JVM stops, at suite end, every server nobody else
+ * is connected to ({@link #stopIdle()}) – of parallel shards, the last one to finish cleans
+ * up.  Otherwise stop them with {@code java -cp <test classpath> ui.core.BrowserServers stop}.
+ *
+ * Pinned to Playwright {@value #PLAYWRIGHT_VERSION}: Playwright Java has no public API for
+ * browser servers, so they are started through the internal {@code impl.driver.Driver} and the
+ * driver's {@code launch-server} command, neither of which is covered by Playwright's
+ * compatibility promises.  Starting a server with any other Playwright version fails with an
+ * {@link IllegalStateException}; re-check both against the new version, then bump the
+ * constant together with the pom.
+ */
+public final class BrowserServers {
+
+    private static final Logger log = LogManager.getLogger(BrowserServers.class);
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    static final String PLAYWRIGHT_VERSION = "1.42.0";
+
+    private static final int  SERVERS          = Math.max(1, ConfigReader.resolveInt("browser.server.count", 2));
+    private static final int  MAX_CONNECTIONS  = Math.max(1, ConfigReader.resolveInt("browser.server.maxConnections", 8));
+    private static final long WAIT_MILLIS   = ConfigReader.resolveInt("browser.server.waitSeconds", 120) * 1_000L;
+    private static final long START_MILLIS  = 30_000;
+    private static final long RETRY_MILLIS  = 200;
+
+    // One in-JVM monitor per server and the slot files held here: FileChannel locks are per
+    // process, and closing a second channel on a locked file can drop the first one's lock
+    private static final Map<String, Object> monitors  = new ConcurrentHashMap<>();
+    private static final Set<String>         heldSlots = ConcurrentHashMap.newKeySet();
+    private static final Set<Lease>          leases    = ConcurrentHashMap.newKeySet();
+
+    private static final AtomicLong connects   = new AtomicLong();
+    private static final AtomicLong starts     = new AtomicLong();
+    private static final AtomicLong restarts   = new AtomicLong();
+    private static final AtomicLong capWaits   = new AtomicLong();
+
+    private BrowserServers() {}
+
+    /** True when {@link BrowserPool} should connect to servers instead of launching browsers. */
+    public static boolean enabled() {
+        return ConfigReader.resolveBoolean("browser.server.enabled", false);
+    }
+
+    /**
+     * Connects {@code pw} to a server for {@code browserName}, starting it if nothing healthy
+     * is running.  Prefers the server with a free slot, starting from one derived from the pid
+     * so forks spread out; waits up to {@code browser.server.waitSeconds} when all are full.
+     *
+     * @throws IllegalStateException when no slot frees up in time
+     */
+    public static Browser connect(Playwright pw, String browserName, boolean headless) {
+        String key = key(browserName, headless);
+        int first = (int) (ProcessHandle.current().pid() % SERVERS);
+        long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+        boolean waited = false;
+
+        while (true) {
+            int full = 0;
+            RuntimeException lastError = null;
+            for (int i = 0; i < SERVERS; i++) {
+                String id = key + "-" + (first + i) % SERVERS;
+                Lease lease = Lease.tryAcquire(id);
+                if (lease == null) {
+                    full++;
+                    continue;
+                }
+                try {
+                    ServerInfo server = ensureRunning(id, browserName, headless);
+                    Browser b = type(pw, browserName).connect(server.wsEndpoint(),
+                            new BrowserType.ConnectOptions().setTimeout(START_MILLIS));
+                    b.onDisconnected(x -> lease.release());
+                    connects.incrementAndGet();
+                    log.info("Connected to browser server {} (slot {}/{})", id, lease.slot + 1, MAX_CONNECTIONS);
+                    return b;
+                } catch (PlaywrightException | IllegalStateException | UncheckedIOException e) {
+                    lease.release();
+                    lastError = e;
+                    log.warn("Could not use browser server {}: {}", id, e.getMessage().lines().findFirst().orElse(""));
+                }
+            }
+            if (full == 0) {
+                // Every server failed to start or connect – waiting will not help
+                throw new IllegalStateException("No '" + key + "' browser server could be used", lastError);
+            }
+            if (System.currentTimeMillis() > deadline) {
+                throw new IllegalStateException("No free slot on the " + SERVERS + " '" + key
+                        + "' browser servers after " + WAIT_MILLIS / 1000 + "s (browser.server.maxConnections="
+                        + MAX_CONNECTIONS + ")", lastError);
+            }
+            if (!waited && full == SERVERS) {
+                waited = true;
+                capWaits.incrementAndGet();
+                log.info("All '{}' browser servers at {} connections – waiting for a free slot", key, MAX_CONNECTIONS);
+            }
+            sleep(RETRY_MILLIS);
+        }
+    }
+
+    /** Stops every server recorded in {@code browser.server.dir} and removes its registry entry. */
+    public static void stopAll() {
+        registryFiles().forEach(BrowserServers::stop);
+    }
+
+    /**
+     * Stops the servers no other JVM is connected to – every slot of the server must be free.
+     * The slots stay locked while the server stops, so nobody connects to it meanwhile.  Call
+     * at suite end, after this JVM's own connections are closed.
+     */
+    public static void stopIdle() {
+        leases.forEach(Lease::release);   // connections are closed – their disconnect events may not come
+        for (Path file : registryFiles()) {
+            String name = file.getFileName().toString();
+            String id = name.substring(0, name.length() - ".json".length());
+            List<Lease> held = new ArrayList<>();
+            try {
+                for (Lease l = Lease.tryAcquire(id); l != null; l = Lease.tryAcquire(id)) {
+                    held.add(l);
+                }
+                if (held.size() == MAX_CONNECTIONS) {
+                    stop(file);
+                } else {
+                    log.info("Browser server {} still has {} connection(s) – left running", id,
+                            MAX_CONNECTIONS - held.size());
+                }
+            } finally {
+                held.forEach(Lease::release);
+            }
+        }
+    }
+
+    /** Usage: {@code BrowserServers stop | status}. */
+    public static void main(String[] args) {
+        String command = args.length == 0 ? "status" : args[0];
+        switch (command) {
+            case "stop"   -> stopAll();
+            case "status" -> registryFiles().forEach(f -> read(f).ifPresent(s ->
+                    System.out.println(f.getFileName() + "  pid=" + s.pid() + "  " + s.wsEndpoint()
+                            + (healthy(s) ? "  healthy" : "  DOWN"))));
+            default       -> throw new IllegalArgumentException("Usage: BrowserServers stop | status");
+        }
+    }
+
+    /** Snapshot of the counters for this JVM. */
+    public static Stats stats() {
+        return new Stats(connects.get(), starts.get(), restarts.get(), capWaits.get());
+    }
+
+    /**
+     * Server counters.  {@code starts} counts servers this JVM launched, of which {@code restarts}
+     * replaced an unhealthy one; {@code capWaits} counts connects that found every server full.
+     */
+    public record Stats(long connects, long starts, long restarts, long capWaits) {}
+
+    // ─────────────────────────────────────────────────────────────────────────
+
+    /** Stops the server of registry entry {@code file} and removes the entry. */
+    private static void stop(Path file) {
+        // Only a live endpoint proves the pid is still ours and not a reused one
+        read(file).filter(BrowserServers::healthy).flatMap(s -> ProcessHandle.of(s.pid())).ifPresent(p -> {
+            p.destroy();   // SIGTERM – the server closes its browser first
+            log.info("Stopped browser server pid {}", p.pid());
+        });
+        deleteQuietly(file);
+    }
+
+    /** Registry entry of one server. */
+    record ServerInfo(long pid, String wsEndpoint, String browser, boolean headless) {}
+
+    /** Returns the healthy server {@code id}, (re)starting it under the machine-wide server lock. */
+    private static ServerInfo ensureRunning(String id, String browserName, boolean headless) {
+        Path file = dir().resolve(id + ".json");
+        Optional<ServerInfo> known = read(file);
+        if (known.isPresent() && healthy(known.get())) {
+            return known.get();
+        }
+        synchronized (monitors.computeIfAbsent(id, k -> new Object())) {
+            try (FileChannel channel = FileChannel.open(dir().resolve(id + ".lock"),
+                         StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                FileLock lock = channel.lock();
+                try {
+                    // Another process may have started it while we waited for the lock
+                    known = read(file);
+                    if (known.isPresent() && healthy(known.get())) {
+                        return known.get();
+                    }
+                    if (known.isPresent()) {
+                        log.warn("Browser server {} (pid {}) is unhealthy – restarting", id, known.get().pid());
+                        ProcessHandle.of(known.get().pid()).ifPresent(ProcessHandle::destroyForcibly);
+                        restarts.incrementAndGet();
+                    }
+                    ServerInfo started = start(id, browserName, headless);
+                    Path tmp = dir().resolve(id + ".json.tmp");
+                    Files.writeString(tmp, mapper.writeValueAsString(started));
+                    Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    return started;
+                } finally {
+                    lock.release();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot start browser server " + id, e);
+            }
+        }
+    }
+
+    private static ServerInfo start(String id, String browserName, boolean headless) throws IOException {
+        String version = Driver.class.getPackage().getImplementationVersion();
+        if (version != null && !version.equals(PLAYWRIGHT_VERSION)) {
+            throw new IllegalStateException("Browser servers rely on Playwright internals checked against "
+                    + PLAYWRIGHT_VERSION + ", but " + version + " is on the classpath – see BrowserServers");
+        }
+        Path config = dir().resolve(id + ".config.json");
+        Path output = dir().resolve(id + ".log");
+        Files.writeString(config, mapper.writeValueAsString(Map.of("headless", headless)));
+        Files.deleteIfExists(output);
+
+        ProcessBuilder pb = Driver.ensureDriverInstalled(Map.of(), false).createProcessBuilder();
+        pb.command().set(0, serverDriver().toString());
+        pb.command().addAll(List.of("launch-server", "--browser", browserName.toLowerCase(), "--config", config.toString()));
+        pb.redirectErrorStream(true).redirectOutput(output.toFile());   // a file, not a pipe – it outlives this JVM
+        Process process = pb.start();
+        starts.incrementAndGet();
+
+        // The server prints its endpoint once the browser is up
+        long deadline = System.currentTimeMillis() + START_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            Optional<String> endpoint = Files.readAllLines(output).stream()
+                    .map(String::trim).filter(l -> l.startsWith("ws://")).findFirst();
+            if (endpoint.isPresent()) {
+                log.info("Started browser server {} (pid {}) at {}", id, process.pid(), endpoint.get());
+                return new ServerInfo(process.pid(), endpoint.get(), browserName.toLowerCase(), headless);
+            }
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Browser server " + id + " exited with " + process.exitValue()
+                        + " – see " + output);
+            }
+            sleep(RETRY_MILLIS);
+        }
+        process.destroyForcibly();
+        throw new IllegalStateException("Browser server " + id + " printed no endpoint within "
+                + START_MILLIS / 1000 + "s – see " + output);
+    }
+
+    /**
+     * Driver launcher inside a copy of the driver directory that nothing deletes.  Copied once per
+     * machine and Playwright version, under the machine-wide lock of the caller.
+     */
+    private static Path serverDriver() throws IOException {
+        Path launcher = Driver.ensureDriverInstalled(Map.of(), false).driverPath();
+        String version = Optional.ofNullable(Driver.class.getPackage().getImplementationVersion()).orElse("dev");
+        Path copy = dir().resolve("driver-" + version);
+        Path done = copy.resolve(".complete");
+        if (!Files.exists(done)) {
+            Path source = launcher.getParent();
+            log.info("Copying Playwright driver to {} for browser servers", copy);
+            try (Stream<Path> files = Files.walk(source)) {
+                for (Path f : (Iterable<Path>) files::iterator) {
+                    Path target = copy.resolve(source.relativize(f).toString());
+                    if (Files.isDirectory(f)) {
+                        Files.createDirectories(target);
+                    } else {
+                        Files.copy(f, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+                    }
+                }
+            }
+            Files.createFile(done);
+        }
+        return copy.resolve(launcher.getFileName().toString());
+    }
+
+    /** Process alive and its websocket port accepting connections. */
+    private static boolean healthy(ServerInfo server) {
+        if (ProcessHandle.of(server.pid()).map(ProcessHandle::isAlive).orElse(false)) {
+            URI uri = URI.create(server.wsEndpoint());
+            try (Socket socket = new Socket()) {
+                socket.connect(new InetSocketAddress(uri.getHost(), uri.getPort()), 1_000);
+                return true;
+            } catch (IOException e) {
+                log.debug("Browser server pid {} not accepting connections: {}", server.pid(), e.getMessage());
+            }
+        }
+        return false;
+    }
+
+    private static BrowserType type(Playwright pw, String browserName) {
+        return switch (browserName.toLowerCase()) {
+            case "firefox" -> pw.firefox();
+            case "webkit"  -> pw.webkit();
+            default        -> pw.chromium();
+        };
+    }
+
+    private static String key(String browserName, boolean headless) {
+        return browserName.toLowerCase() + (headless ? "" : "-headed");
+    }
+
+    private static Path dir() {
+        String configured = ConfigReader.resolve("browser.server.dir", "");
+        Path dir = configured.isEmpty()
+                ? Paths.get(System.getProperty("java.io.tmpdir"), "playwright-servers")
+                : Paths.get(configured);
+        try {
+            return Files.createDirectories(dir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create browser server directory " + dir, e);
+        }
+    }
+
+    private static List<Path> registryFiles() {
+        try (Stream<Path> files = Files.list(dir())) {
+            return files.filter(f -> f.toString().endsWith(".json") && !f.toString().endsWith(".config.json")).toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Optional<ServerInfo> read(Path file) {
+        try {
+            return Files.exists(file) ? Optional.of(mapper.readValue(file.toFile(), ServerInfo.class)) : Optional.empty();
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable browser server entry {}: {}", file, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a browser server", e);
+        }
+    }
+
+    /** One of a server's {@code maxConnections} slot locks, held for the life of one connection. */
+    private static final class Lease {
+        final int         slot;
+        final String      file;
+        final FileChannel channel;
+
+        private Lease(int slot, String file, FileChannel channel) {
+            this.slot    = slot;
+            this.file    = file;
+            this.channel = channel;
+        }
+
+        /** First free slot of server {@code id}, or null when all are taken by this or other JVMs. */
+        static Lease tryAcquire(String id) {
+            for (int slot = 0; slot < MAX_CONNECTIONS; slot++) {
+                String file = id + ".slot-" + slot;
+                if (!heldSlots.add(file)) continue;   // taken by another thread of this JVM
+                FileChannel channel = null;
+                try {
+                    channel = FileChannel.open(dir().resolve(file), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                    if (channel.tryLock() != null) {
+                        Lease lease = new Lease(slot, file, channel);
+                        leases.add(lease);
+                        return lease;
+                    }
+                } catch (IOException | OverlappingFileLockException e) {
+                    log.warn("Cannot lock slot {} of browser server {}: {}", slot, id, e.getMessage());
+                }
+                closeQuietly(channel);
+                heldSlots.remove(file);
+            }
+            return null;
+        }
+
+        synchronized void release() {
+            if (channel.isOpen()) {
+                closeQuietly(channel);   // also releases the lock
+                heldSlots.remove(file);
+                leases.remove(this);
+            }
+        }
+
+        private static void closeQuietly(FileChannel channel) {
+            try {
+                if (channel != null) channel.close();
+            } catch (IOException e) {
+                log.debug("Ignoring error closing slot file: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package ui.core;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Joins the HAR files of several recording contexts into one.
+ *
+ * Playwright writes a context's HAR when the context closes and overwrites whatever the
+ * file held, so a class that opens more than one context while recording (a retry, a
+ * per-method reset) records each into its own part; the parts are merged into
+ * {@code <harName>.har} when the class finishes.  Pages and entries are appended in
+ * recording order, so replay still finds the first matching response first.
+ */
+final class HarMerger {
+
+    private static final Logger log = LogManager.getLogger(HarMerger.class);
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private HarMerger() {}
+
+    /**
+     * Writes the union of {@code parts} to {@code target} and deletes the parts.  Parts that
+     * were never written (context failed to close) are skipped; nothing is written if none exist.
+     */
+    static void merge(List<Path> parts, Path target) {
+        ObjectNode merged = null;
+        int entries = 0;
+        for (Path part : parts) {
+            if (!Files.isRegularFile(part)) {
+                log.warn("HAR part {} was never written – skipped", part);
+                continue;
+            }
+            try {
+                ObjectNode har = (ObjectNode) mapper.readTree(part.toFile());
+                ObjectNode harLog = (ObjectNode) har.path("log");
+                entries += harLog.path("entries").size();
+                if (merged == null) {
+                    merged = har;
+                } else {
+                    append(merged, harLog, "pages");
+                    append(merged, harLog, "entries");
+                }
+            } catch (IOException | ClassCastException e) {
+                throw new IllegalStateException("Cannot read HAR part " + part, e);
+            }
+        }
+        if (merged == null) {
+            return;
+        }
+        try {
+            Files.writeString(target, mapper.writeValueAsString(merged));
+            for (Path part : parts) {
+                Files.deleteIfExists(part);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot write merged HAR " + target, e);
+        }
+        log.info("Recorded {} – {} entries from {} context(s)", target, entries, parts.size());
+    }
+
+    private static void append(ObjectNode merged, ObjectNode harLog, String field) {
+        ObjectNode mergedLog = (ObjectNode) merged.path("log");
+        ArrayNode into = mergedLog.has(field) ? (ArrayNode) mergedLog.get(field) : mergedLog.putArray(field);
+        harLog.path(field).forEach(into::add);
+    }
+}
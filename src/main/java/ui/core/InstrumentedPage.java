@@ -0,0 +1,169 @@
+package ui.core;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import com.microsoft.playwright.FrameLocator;
+import com.microsoft.playwright.Locator;
+import com.microsoft.playwright.Page;
+
+/**
+ * Wraps a {@link Page} so that every driver action made through it – or through any
+ * {@link Locator} / {@link FrameLocator} it hands out – is timed into {@link ActionMetrics}.
+ *
+ * Page objects keep using the plain Playwright interfaces; {@link PlaywrightFactory#getPage()}
+ * simply returns the wrapper.  Building a locator is lazy in Playwright (no driver round
+ * trip), so only calls that return something else are timed: {@code click},
+ * {@code innerText}, {@code waitFor}, {@code navigate}, {@code evaluate}…  Each is keyed
+ * by action name and selector (the locator's resolved selector, the selector argument of
+ * page-level calls, or {@code page}).
+ */
+final class InstrumentedPage {
+
+    // Page accessors that never talk to the driver, or are event wiring
+    private static final Set<String> UNTIMED = Set.of(
+            "url", "context", "mainFrame", "frames", "frame", "frameByUrl", "viewportSize", "isClosed",
+            "keyboard", "mouse", "touchscreen", "video", "request", "workers", "page",
+            "setDefaultTimeout", "setDefaultNavigationTimeout", "toString", "hashCode", "equals");
+
+    private InstrumentedPage() {}
+
+    static Page wrap(Page page) {
+        return proxy(Page.class, page, "page");
+    }
+
+    /** The real Playwright object behind a wrapped page, locator or frame locator; anything else as is. */
+    @SuppressWarnings("unchecked")
+    static <T> T unwrap(T maybeWrapped) {
+        return (T) Timing.unwrap(maybeWrapped);
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, String selector) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+                new Timing(target, selector));
+    }
+
+    private record Timing(Object target, String selector) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Class<?> returns = method.getReturnType();
+            String name = method.getName();
+
+            if (returns == Locator.class || returns == FrameLocator.class) {
+                Object result = call(method, args);
+                return result instanceof Locator l
+                        ? proxy(Locator.class, l, describe(l))
+                        : proxy(FrameLocator.class, (FrameLocator) result, selector + " >> frame " + firstArg(args));
+            }
+            if (UNTIMED.contains(name) || name.startsWith("on") || name.startsWith("off")) {
+                return call(method, args);
+            }
+
+            String label = selector;
+            if (target instanceof Page && args != null && args.length > 0
+                    && args[0] instanceof String s && !"navigate".equals(name)) {
+                label = s;   // page.click(selector), page.innerText(selector)…
+            }
+            long start = System.nanoTime();
+            boolean failed = true;
+            try {
+                Object result = call(method, args);
+                failed = false;
+                return result;
+            } finally {
+                ActionMetrics.record(name, label, System.nanoTime() - start, failed);
+            }
+        }
+
+        private Object call(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, unwrapAll(args));
+            } catch (InvocationTargetException e) {
+                throw e.getCause();   // callers see Playwright's own exceptions
+            }
+        }
+
+        /**
+         * Playwright casts Locator arguments to its own implementation ({@code and},
+         * {@code dragTo}, {@code FilterOptions.has}, {@code ScreenshotOptions.mask}…), so
+         * wrapped locators are swapped back for the real ones – also inside option objects.
+         * An option object that holds one is copied first: the caller's instance is never
+         * modified, so it can be reused.
+         */
+        private static Object[] unwrapAll(Object[] args) throws ReflectiveOperationException {
+            if (args == null) {
+                return null;
+            }
+            Object[] out = args.clone();
+            for (int i = 0; i < out.length; i++) {
+                out[i] = unwrap(out[i]);
+                if (out[i] != null && out[i].getClass().getName().startsWith("com.microsoft.playwright.")
+                        && holdsWrapped(out[i])) {
+                    out[i] = unwrappedCopy(out[i]);
+                }
+            }
+            return out;
+        }
+
+        private static boolean holdsWrapped(Object options) throws IllegalAccessException {
+            for (Field f : optionFields(options)) {
+                Object value = f.get(options);
+                if (value instanceof List<?> list ? list.stream().anyMatch(Timing::isWrapped) : isWrapped(value)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /** Field-by-field copy of {@code options} with every wrapped locator replaced by the real one. */
+        private static Object unwrappedCopy(Object options) throws ReflectiveOperationException {
+            Object copy = options.getClass().getDeclaredConstructor().newInstance();
+            for (Field f : optionFields(options)) {
+                Object value = f.get(options);
+                if (value instanceof List<?> list && list.stream().anyMatch(Timing::isWrapped)) {
+                    value = new ArrayList<>(list.stream().map(Timing::unwrap).toList());
+                } else {
+                    value = unwrap(value);
+                }
+                f.set(copy, value);
+            }
+            return copy;
+        }
+
+        private static List<Field> optionFields(Object options) {
+            return Arrays.stream(options.getClass().getFields())
+                    .filter(f -> !Modifier.isStatic(f.getModifiers()) && !Modifier.isFinal(f.getModifiers()))
+                    .toList();
+        }
+
+        private static boolean isWrapped(Object arg) {
+            return arg != null && Proxy.isProxyClass(arg.getClass())
+                    && Proxy.getInvocationHandler(arg) instanceof Timing;
+        }
+
+        private static Object unwrap(Object arg) {
+            return isWrapped(arg) ? ((Timing) Proxy.getInvocationHandler(arg)).target() : arg;
+        }
+
+        private static String describe(Locator locator) {
+            String s = locator.toString();
+            return s.startsWith("Locator@") ? s.substring("Locator@".length()) : s;
+        }
+
+        private static String firstArg(Object[] args) {
+            return args == null || args.length == 0 ? "" : String.valueOf(args[0]);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package ui.core;
+
+import config.ConfigReader;
+
+/**
+ * How a BrowserContext talks to the network.
+ *
+ *  - LIVE   : every request goes to the real site (default).
+ *  - RECORD : live traffic is also written to one HAR file per test class.
+ *  - REPLAY : every request is served from that HAR; nothing leaves the machine.
+ *
+ * Selected with {@code network.mode} in config.properties or {@code -Dnetwork.mode=replay}.
+ */
+public enum NetworkMode {
+    LIVE, RECORD, REPLAY;
+
+    public static NetworkMode fromConfig() {
+        String value = ConfigReader.resolve("network.mode", "live");
+        try {
+            return valueOf(value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException(
+                "Unknown network.mode '" + value + "' – expected live, record or replay", e);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package ui.core;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Request;
+import com.microsoft.playwright.Route;
+import config.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Named set of requests a BrowserContext should abort before they hit the network.
+ *
+ * Built-in profiles ({@code network.profile}):
+ *  - full           : block nothing, no routing installed (default)
+ *  - text-only      : block images, media and fonts
+ *  - no-third-party : block every host outside {@code network.firstParty}
+ *  - lean           : text-only + no-third-party
+ *
+ * Extra resource types ({@code network.block.types}) and URL regexes
+ * ({@code network.block.urls}), both comma-separated, are added to whichever profile is active.
+ */
+public record NetworkProfile(String name, Set<String> blockedTypes, List<Pattern> blockedUrls,
+                             Set<String> firstPartyDomains) {
+
+    private static final Logger log = LogManager.getLogger(NetworkProfile.class);
+
+    private static final Set<String> HEAVY_TYPES = Set.of("image", "media", "font");
+
+    public NetworkProfile {
+        blockedTypes      = Set.copyOf(blockedTypes);
+        blockedUrls       = List.copyOf(blockedUrls);
+        firstPartyDomains = Set.copyOf(firstPartyDomains);
+    }
+
+    /** Builds the profile selected in config, including any extra block rules. */
+    public static NetworkProfile fromConfig() {
+        String name = ConfigReader.resolve("network.profile", "full").toLowerCase();
+
+        Set<String> types = new HashSet<>();
+        Set<String> firstParty = new HashSet<>();
+        switch (name) {
+            case "full"           -> { }
+            case "text-only"      -> types.addAll(HEAVY_TYPES);
+            case "no-third-party" -> firstParty.addAll(csv("network.firstParty"));
+            case "lean"           -> {
+                types.addAll(HEAVY_TYPES);
+                firstParty.addAll(csv("network.firstParty"));
+            }
+            default -> throw new IllegalStateException("Unknown network.profile '" + name
+                + "' – expected full, text-only, no-third-party or lean");
+        }
+        types.addAll(csv("network.block.types"));
+
+        List<Pattern> urls = new ArrayList<>();
+        for (String regex : csv("network.block.urls")) {
+            urls.add(Pattern.compile(regex));
+        }
+        return new NetworkProfile(name, types, urls, firstParty);
+    }
+
+    /** True when the profile would never block anything. */
+    public boolean isPassThrough() {
+        return blockedTypes.isEmpty() && blockedUrls.isEmpty() && firstPartyDomains.isEmpty();
+    }
+
+    /**
+     * Installs the blocking route plus the served/blocked counters on {@code ctx}.
+     * Call AFTER any HAR routing – the last registered route runs first, and unblocked
+     * requests fall back to the HAR handler.
+     */
+    public void applyTo(BrowserContext ctx) {
+        ctx.onResponse(NetworkStats::recordServed);
+
+        // Routing disables the browser cache, so skip it when there is nothing to block
+        if (isPassThrough()) {
+            return;
+        }
+        ctx.route("**/*", this::handle);
+        log.info("Network profile '{}' – blocking types={} urls={} firstPartyOnly={}",
+                name, blockedTypes, blockedUrls, !firstPartyDomains.isEmpty());
+    }
+
+    /** Returns true if {@code request} is blocked by this profile. */
+    public boolean blocks(Request request) {
+        if (blockedTypes.contains(request.resourceType())) {
+            return true;
+        }
+        String url = request.url();
+        for (Pattern p : blockedUrls) {
+            if (p.matcher(url).find()) {
+                return true;
+            }
+        }
+        return !firstPartyDomains.isEmpty() && !isFirstParty(url);
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────
+
+    private void handle(Route route) {
+        Request request = route.request();
+        if (blocks(request)) {
+            NetworkStats.recordBlocked(request.resourceType());
+            route.abort("blockedbyclient");
+        } else {
+            route.fallback();
+        }
+    }
+
+    private boolean isFirstParty(String url) {
+        String host;
+        try {
+            host = URI.create(url).getHost();
+        } catch (IllegalArgumentException e) {
+            return true; // data:, blob: and other opaque URLs never leave the browser
+        }
+        if (host == null) {
+            return true;
+        }
+        for (String domain : firstPartyDomains) {
+            if (host.equals(domain) || host.endsWith("." + domain)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<String> csv(String key) {
+        String raw = ConfigReader.resolve(key, "");
+        if (raw.isEmpty()) {
+            return List.of();
+        }
+        return Arrays.stream(raw.split(",")).map(String::trim).filter(s -> !s.isEmpty()).toList();
+    }
+}
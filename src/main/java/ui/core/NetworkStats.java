@@ -0,0 +1,53 @@
+package ui.core;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.microsoft.playwright.Response;
+
+/**
+ * Run-wide counters of requests served versus blocked by a {@link NetworkProfile}.
+ *
+ * Served bytes come from the {@code content-length} response header, read from the
+ * locally cached headers so counting never costs a driver round trip.  Responses sent
+ * chunked have no length and add 0 bytes.  Blocked requests are aborted before any
+ * byte is downloaded, so only their count (per resource type) is known.
+ */
+public final class NetworkStats {
+
+    private static final LongAdder served      = new LongAdder();
+    private static final LongAdder servedBytes = new LongAdder();
+    private static final Map<String, AtomicLong> blockedByType = new ConcurrentHashMap<>();
+
+    private NetworkStats() {}
+
+    static void recordServed(Response response) {
+        served.increment();
+        String length = response.headers().get("content-length");
+        if (length != null) {
+            try {
+                servedBytes.add(Long.parseLong(length.trim()));
+            } catch (NumberFormatException ignored) {
+                // malformed header – count the request, not the bytes
+            }
+        }
+    }
+
+    static void recordBlocked(String resourceType) {
+        blockedByType.computeIfAbsent(resourceType, t -> new AtomicLong()).incrementAndGet();
+    }
+
+    /** Snapshot of the counters since JVM start. */
+    public static Snapshot snapshot() {
+        Map<String, Long> byType = new TreeMap<>();
+        blockedByType.forEach((type, count) -> byType.put(type, count.get()));
+        long blocked = byType.values().stream().mapToLong(Long::longValue).sum();
+        return new Snapshot(served.sum(), servedBytes.sum(), blocked, Map.copyOf(byType));
+    }
+
+    public record Snapshot(long servedRequests, long servedBytes, long blockedRequests,
+                           Map<String, Long> blockedByType) {}
+}
@@ -1,69 +1,204 @@
 package ui.core;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
 import com.microsoft.playwright.*;
+import com.microsoft.playwright.options.HarContentPolicy;
+import com.microsoft.playwright.options.HarMode;
+import com.microsoft.playwright.options.HarNotFound;
+import config.ConfigReader;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import utils.AdaptiveTimeouts;
 
 /**
  * Thread-safe factory for managing Playwright browser lifecycle.
  * Uses ThreadLocal so parallel test runs each get their own isolated instance.
+ *
+ * The Playwright driver and Browser come from {@link BrowserPool} and stay warm for the
+ * whole suite; this class only creates and disposes the per-test BrowserContext + Page.
+ *
+ * With {@code network.mode=record|replay} (see {@link NetworkMode}) each context records
+ * to, or is served from, {@code <har.dir>/<harName>.har}.  In replay, requests missing
+ * from the HAR are aborted and fail the test that made them ({@code har.unmatched=fail},
+ * see {@link #takeReplayMisses()}) or are sent to the network ({@code har.unmatched=passthrough}).  While recording, every context of a class (a
+ * retry opens a new one) writes its own part, merged into the class HAR by
+ * {@link #tearDown()} – see {@link HarMerger}.
+ *
+ * Every context also gets the {@link NetworkProfile} named by {@code network.profile},
+ * which aborts resources the assertions never look at (images, fonts, trackers…).
+ *
+ * {@link #getPage()} hands out an {@link InstrumentedPage} wrapper, so every page
+ * object's driver calls are timed per action and selector ({@code ui.metrics.enabled}).
+ * The wrapper and the locators it returns are JDK proxies, not Playwright's own classes:
+ * {@code PlaywrightAssertions.assertThat(...)} casts to those and would throw a
+ * ClassCastException, so pass it {@link #unwrap(Object) unwrap(page)} /
+ * {@code unwrap(locator)}.  Assertions made that way are not timed.
  */
 public class PlaywrightFactory {
 
     private static final Logger log = LogManager.getLogger(PlaywrightFactory.class);
 
-    // ThreadLocal ensures each thread (parallel test) has its own browser stack
-    private static final ThreadLocal<Playwright>       playwright = new ThreadLocal<>();
-    private static final ThreadLocal<Browser>          browser    = new ThreadLocal<>();
+    // ThreadLocal ensures each thread (parallel test) has its own context/page
     private static final ThreadLocal<BrowserContext>   context    = new ThreadLocal<>();
     private static final ThreadLocal<Page>             page       = new ThreadLocal<>();
+    private static final ThreadLocal<Session>          session    = new ThreadLocal<>();
+
+    // harName → HAR parts recorded so far by the class's contexts, merged at class teardown
+    private static final Map<String, List<Path>> recordings = new ConcurrentHashMap<>();
+
+    // Requests a replayed context could not answer from its HAR (strict mode only)
+    private static final AtomicLong unmatchedReplays = new AtomicLong();
+
+    // Per thread: misses not yet reported by takeReplayMisses() – outlive context resets
+    private static final ThreadLocal<List<String>> replayMisses =
+            ThreadLocal.withInitial(() -> Collections.synchronizedList(new ArrayList<>()));
 
     // Private constructor – this is a static utility class, not meant to be instantiated
     private PlaywrightFactory() {}
 
     /**
-     * Initialises the full Playwright → Browser → Context → Page chain.
+     * Opens a fresh Context → Page on the current thread's pooled browser, always live.
      *
      * @param browserName  "chromium" | "firefox" | "webkit"  (case-insensitive)
      * @param headless     run without a visible window when true
      */
     public static void initBrowser(String browserName, boolean headless) {
-        log.info("Initialising '{}' browser (headless={})", browserName, headless);
-
-        playwright.set(Playwright.create());
-
-        // Switch expression – clear, exhaustive, no fall-through risk
-        BrowserType browserType = switch (browserName.toLowerCase()) {
-            case "firefox" -> playwright.get().firefox();
-            case "webkit"  -> playwright.get().webkit();
-            default        -> {
-                log.warn("Unknown browser '{}' – defaulting to chromium", browserName);
-                yield playwright.get().chromium();
-            }
-        };
+        initBrowser(browserName, headless, null);
+    }
 
-        BrowserType.LaunchOptions launchOptions = new BrowserType.LaunchOptions()
-                .setHeadless(headless)
-                .setSlowMo(headless ? 0 : 50); // slight slowdown in headed mode aids debugging
+    /**
+     * Opens a fresh Context → Page on the current thread's pooled browser.
+     *
+     * @param browserName  "chromium" | "firefox" | "webkit"  (case-insensitive)
+     * @param headless     run without a visible window when true
+     * @param harName      HAR file name (usually {@code <test class>_<browser>}) for record/replay,
+     *                     or null to always go live
+     */
+    public static void initBrowser(String browserName, boolean headless, String harName) {
+        openContext(browserName, headless, harName, null);
+    }
 
-        browser.set(browserType.launch(launchOptions));
+    private static void openContext(String browserName, boolean headless, String harName, String storageState) {
+        NetworkMode mode = harName == null ? NetworkMode.LIVE : NetworkMode.fromConfig();
+        if (mode == NetworkMode.RECORD && "method".equalsIgnoreCase(ConfigReader.resolve("context.scope", "class"))) {
+            throw new IllegalStateException("network.mode=record needs context.scope=class – record with "
+                + "-Dcontext.scope=class, then replay with either scope");
+        }
+        log.info("Initialising '{}' browser context (headless={}, network={})", browserName, headless, mode);
 
         // Full HD viewport; also enable video/trace recording hooks if needed later
         Browser.NewContextOptions contextOptions = new Browser.NewContextOptions()
                 .setViewportSize(1920, 1080)
                 .setIgnoreHTTPSErrors(true);   // handy for self-signed certs in CI
+        if (storageState != null) {
+            contextOptions.setStorageState(storageState);   // cookies + localStorage of a saved StartState
+        }
 
-        context.set(browser.get().newContext(contextOptions));
+        if (mode == NetworkMode.RECORD) {
+            // One part per context – closing a context overwrites its HAR file
+            List<Path> parts = recordings.computeIfAbsent(harName, k -> new ArrayList<>());
+            Path har = harPath(harName + "-" + (parts.size() + 1));
+            parts.add(har);
+            try {
+                Files.createDirectories(har.getParent());
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot create HAR directory " + har.getParent(), e);
+            }
+            // EMBED keeps each recording a single self-contained file that can be committed
+            contextOptions.setRecordHarPath(har)
+                    .setRecordHarContent(HarContentPolicy.EMBED)
+                    .setRecordHarMode(HarMode.FULL);
+            log.info("Recording network traffic to {}", har);
+        }
 
-        // Start tracing so failures can be investigated with Playwright's trace viewer
-        context.get().tracing().start(new Tracing.StartOptions()
-                .setScreenshots(true)
-                .setSnapshots(true));
+        BrowserContext ctx;
+        try {
+            ctx = BrowserPool.acquire(browserName, headless).newContext(contextOptions);
+        } catch (PlaywrightException e) {
+            // A pooled browser can die between tests – relaunch once before giving up
+            log.warn("newContext failed on pooled browser ({}) – relaunching", e.getMessage());
+            BrowserPool.invalidate(browserName, headless);
+            ctx = BrowserPool.acquire(browserName, headless).newContext(contextOptions);
+        }
+        context.set(ctx);
+        session.set(new Session(browserName, headless, harName));
 
-        page.set(context.get().newPage());
+        if (mode == NetworkMode.REPLAY) {
+            replayFromHar(ctx, harPath(harName));
+        }
+        // Registered after the HAR route so it runs first and falls back to it
+        NetworkProfile.fromConfig().applyTo(ctx);
+
+        // Start tracing so failures can be investigated with Playwright's trace viewer;
+        // TraceRecorder cuts it into per-test chunks and keeps only the failing ones
+        if (TraceRecorder.mode() != TraceRecorder.Mode.OFF) {
+            context.get().tracing().start(new Tracing.StartOptions()
+                    .setScreenshots(true)
+                    .setSnapshots(true));
+        }
+
+        // Page objects get a wrapper that times every driver action (see ActionMetrics)
+        Page newPage = context.get().newPage();
+        page.set(ConfigReader.resolveBoolean("ui.metrics.enabled", true) ? InstrumentedPage.wrap(newPage) : newPage);
         log.info("Browser ready – page created");
     }
 
+    /**
+     * Disposes the current context (discarding its trace) and opens a fresh one on the
+     * same warm browser.  Used for per-method isolation.
+     */
+    public static void resetContext() {
+        Session s = session.get();
+        if (s == null) {
+            throw new IllegalStateException(
+                "No active session – did you call PlaywrightFactory.initBrowser() first?");
+        }
+        closeContext(null);
+        initBrowser(s.browserName(), s.headless(), s.harName());
+    }
+
+    /**
+     * Snapshot of where the current page is – URL plus cookies / localStorage – so a
+     * retry can start from it on a fresh context without clicking through navigation.
+     */
+    public static StartState captureStartState() {
+        BrowserContext ctx = context.get();
+        if (ctx == null) {
+            throw new IllegalStateException(
+                "No active context – did you call PlaywrightFactory.initBrowser() first?");
+        }
+        return new StartState(getPage().url(), ctx.storageState());
+    }
+
+    /**
+     * Disposes the current context and opens a fresh one on the same warm browser,
+     * seeded with {@code state}'s storage and navigated straight to its URL.
+     */
+    public static void restoreStartState(StartState state) {
+        Session s = session.get();
+        if (s == null) {
+            throw new IllegalStateException(
+                "No active session – did you call PlaywrightFactory.initBrowser() first?");
+        }
+        closeContext(null);
+        openContext(s.browserName(), s.headless(), s.harName(), state.storageState());
+        getPage().navigate(state.url());
+        log.info("Restored start state on a fresh context: {}", state.url());
+    }
+
+    /** URL and Playwright storage-state JSON captured by {@link #captureStartState()}. */
+    public record StartState(String url, String storageState) {}
+
     /** Returns the Page for the current thread. */
     public static Page getPage() {
         Page p = page.get();
@@ -75,32 +210,43 @@ public class PlaywrightFactory {
     }
 
     /**
-     * Closes resources in the correct reverse-creation order:
-     * Page → Context (+ trace) → Browser → Playwright
-     *
-     * NOTE: Playwright must be closed LAST; closing it before the browser
-     * causes a native crash on some platforms.
+     * Closes the current thread's Context (+ trace).  The pooled Browser and Playwright
+     * driver stay alive for the next test – see {@link #shutdown()}.  When recording, the
+     * HAR parts of the class's contexts are merged into {@code <harName>.har}.
      */
     public static void tearDown() {
         tearDown(null); // no trace output path by default
     }
 
     /**
-     * Overload that also saves the Playwright trace zip on failure.
+     * Overload that also saves whatever the trace holds since the last test chunk
+     * (per-test traces are written by {@link TraceRecorder}).
      *
      * @param tracePath  path to write the .zip, or null to discard
      */
     public static void tearDown(String tracePath) {
-        log.info("Tearing down Playwright resources (trace={})", tracePath);
+        Session s = session.get();
+        closeContext(tracePath);
+        List<Path> parts = s == null || s.harName() == null ? null : recordings.remove(s.harName());
+        if (parts != null) {
+            HarMerger.merge(parts, harPath(s.harName()));
+        }
+    }
+
+    /** Closes the context (writing its HAR part when recording) but keeps the class's recording open. */
+    private static void closeContext(String tracePath) {
+        log.info("Closing browser context (trace={})", tracePath);
 
         // Page doesn't need explicit close – it's closed with its context
         try {
             if (context.get() != null) {
-                if (tracePath != null) {
-                    context.get().tracing().stop(
-                        new Tracing.StopOptions().setPath(java.nio.file.Paths.get(tracePath)));
-                } else {
-                    context.get().tracing().stop();
+                if (TraceRecorder.mode() != TraceRecorder.Mode.OFF) {
+                    if (tracePath != null) {
+                        context.get().tracing().stop(
+                            new Tracing.StopOptions().setPath(Paths.get(tracePath)));
+                    } else {
+                        context.get().tracing().stop();
+                    }
                 }
                 context.get().close();
             }
@@ -109,24 +255,86 @@ public class PlaywrightFactory {
         } finally {
             context.remove();
             page.remove();
+            session.remove();
         }
+    }
 
-        try {
-            if (browser.get() != null) browser.get().close();
-        } catch (Exception e) {
-            log.error("Error closing Browser", e);
-        } finally {
-            browser.remove();
+    /**
+     * Closes every pooled Browser and Playwright driver.  Call once at suite end.
+     *
+     * NOTE: Playwright must be closed LAST; closing it before the browser
+     * causes a native crash on some platforms – BrowserPool takes care of the order.
+     */
+    public static void shutdown() {
+        BrowserPool.shutdown();
+        log.info("Network totals – {}", NetworkStats.snapshot());
+        log.info("Trace chunks – {}", TraceRecorder.stats());
+        ActionMetrics.export(ActionMetrics.defaultDir());
+        AdaptiveTimeouts.save();
+    }
+
+    /**
+     * Requests the current thread's replayed contexts could not answer from their HAR since
+     * the last call, then forgets them.  Empty unless {@code har.unmatched=fail}; the test
+     * listener fails the test that caused them.
+     */
+    public static List<String> takeReplayMisses() {
+        List<String> misses = replayMisses.get();
+        synchronized (misses) {
+            List<String> taken = List.copyOf(misses);
+            misses.clear();
+            return taken;
         }
+    }
 
-        try {
-            if (playwright.get() != null) playwright.get().close();
-        } catch (Exception e) {
-            log.error("Error closing Playwright", e);
-        } finally {
-            playwright.remove();
+    /**
+     * The real Playwright {@link Page} / {@link Locator} behind one handed out by
+     * {@link #getPage()} – for APIs that need Playwright's own implementation, such as
+     * {@code PlaywrightAssertions.assertThat}.  Returns anything that is not wrapped as is.
+     */
+    public static <T> T unwrap(T pageOrLocator) {
+        return InstrumentedPage.unwrap(pageOrLocator);
+    }
+
+    /** Number of replayed requests that had no HAR entry and were aborted. */
+    public static long getUnmatchedReplays() {
+        return unmatchedReplays.get();
+    }
+
+    /** The current thread's context, or null – for {@link TraceRecorder}. */
+    static BrowserContext currentContext() {
+        return context.get();
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────
+
+    private static Path harPath(String harName) {
+        return Paths.get(ConfigReader.resolve("har.dir", "src/test/resources/har"), harName + ".har");
+    }
+
+    private static void replayFromHar(BrowserContext ctx, Path har) {
+        if (!Files.isRegularFile(har)) {
+            throw new IllegalStateException("network.mode=replay but no recording at " + har
+                + " – run once with -Dnetwork.mode=record to create it");
         }
+        boolean strict = !"passthrough".equalsIgnoreCase(ConfigReader.resolve("har.unmatched", "fail"));
 
-        log.info("Playwright teardown complete");
+        if (strict) {
+            // Registered before the HAR route, so only requests the HAR falls back on reach it –
+            // a miss is told apart by routing, not by guessing from an engine's failure text
+            List<String> misses = replayMisses.get();
+            ctx.route("**/*", route -> {
+                Request request = route.request();
+                unmatchedReplays.incrementAndGet();
+                misses.add(request.method() + " " + request.url());
+                log.warn("Replay miss (not in {}): {} {}", har.getFileName(), request.method(), request.url());
+                route.abort();
+            });
+        }
+        ctx.routeFromHAR(har, new BrowserContext.RouteFromHAROptions().setNotFound(HarNotFound.FALLBACK));
+        log.info("Replaying network traffic from {} (unmatched={})", har, strict ? "fail" : "passthrough");
     }
-}
\ No newline at end of file
+
+    /** Browser settings of the current thread's context, kept for {@link #resetContext()}. */
+    private record Session(String browserName, boolean headless, String harName) {}
+}
@@ -0,0 +1,178 @@
+package ui.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Tracing;
+import config.ConfigReader;
+import io.qameta.allure.Allure;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import utils.LatencyHistogram;
+
+/**
+ * Per-test Playwright trace chunks.
+ *
+ * Tracing is started once per context (see {@link PlaywrightFactory}); every test method
+ * then records into its own chunk.  A chunk is only zipped to disk when the test failed
+ * (a failed attempt is also what a retry re-runs), otherwise it is discarded – passing
+ * tests never pay for archive writing, and a failure gets a small trace of just itself
+ * instead of the whole class.
+ *
+ * Config (system property first, then config.properties):
+ *  - {@code trace.mode}      – {@code on-failure} (default), {@code always}, or {@code off};
+ *    {@code -DsaveTrace=true} still means {@code always}
+ *  - {@code trace.dir}       – where chunks are written, default target/traces
+ *  - {@code trace.budget.mb} – disk budget for the whole run; once used up further chunks
+ *    are discarded (and counted) so a run full of failures cannot fill the disk
+ *
+ * Overhead (time spent in start/stop chunk calls) is tracked per test and logged at suite end.
+ */
+public final class TraceRecorder {
+
+    private static final Logger log = LogManager.getLogger(TraceRecorder.class);
+
+    public enum Mode { OFF, ON_FAILURE, ALWAYS }
+
+    private static final ThreadLocal<Chunk> current = new ThreadLocal<>();
+
+    private static final LatencyHistogram overhead      = new LatencyHistogram();
+    private static final LongAdder        saved         = new LongAdder();
+    private static final LongAdder        discarded     = new LongAdder();
+    private static final LongAdder        overBudget    = new LongAdder();
+    private static final AtomicLong       bytesWritten  = new AtomicLong();
+    private static final AtomicLong       sequence      = new AtomicLong();
+
+    private TraceRecorder() {}
+
+    public static Mode mode() {
+        if (Boolean.parseBoolean(System.getProperty("saveTrace", "false"))) {
+            return Mode.ALWAYS;
+        }
+        String mode = ConfigReader.resolve("trace.mode", "on-failure");
+        return switch (mode.trim().toLowerCase()) {
+            case "off"        -> Mode.OFF;
+            case "always"     -> Mode.ALWAYS;
+            case "on-failure" -> Mode.ON_FAILURE;
+            default -> throw new IllegalStateException(
+                    "Unknown trace.mode '" + mode + "' – expected on-failure, always or off");
+        };
+    }
+
+    /** Starts a chunk for {@code testName} on the current thread's context, if it has one. */
+    public static void beginTest(String testName) {
+        BrowserContext ctx = PlaywrightFactory.currentContext();
+        if (ctx == null || mode() == Mode.OFF) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            // Discards whatever was recorded since the last chunk (class setup, previous test)
+            ctx.tracing().startChunk(new Tracing.StartChunkOptions().setTitle(testName));
+            current.set(new Chunk(testName, ctx, System.nanoTime() - start));
+        } catch (Exception e) {
+            log.warn("Could not start trace chunk for {}: {}", testName, e.getMessage());
+        }
+    }
+
+    /**
+     * Ends the current thread's chunk.  Writes it to {@code trace.dir} and attaches it to
+     * Allure when {@code failed} (or in always mode) and the budget allows.
+     *
+     * @return the written zip, or null when the chunk was discarded
+     */
+    public static Path endTest(boolean failed) {
+        Chunk chunk = current.get();
+        current.remove();
+        if (chunk == null) {
+            return null;
+        }
+
+        Path target = null;
+        if (failed || mode() == Mode.ALWAYS) {
+            if (bytesWritten.get() < budgetBytes()) {
+                target = Paths.get(ConfigReader.resolve("trace.dir", "target/traces"),
+                        fileName(chunk.testName()) + "-" + sequence.incrementAndGet() + ".zip");
+            } else {
+                overBudget.increment();
+                log.warn("Trace budget of {} MB used up – discarding trace for {}",
+                        budgetBytes() >> 20, chunk.testName());
+            }
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (target != null) {
+                Files.createDirectories(target.getParent());
+                chunk.context().tracing().stopChunk(new Tracing.StopChunkOptions().setPath(target));
+            } else {
+                chunk.context().tracing().stopChunk();
+            }
+        } catch (Exception e) {
+            log.warn("Could not stop trace chunk for {}: {}", chunk.testName(), e.getMessage());
+            target = null;
+        }
+        long stopNanos = System.nanoTime() - start;
+        overhead.recordNanos(chunk.startNanos() + stopNanos);
+
+        if (target == null) {
+            discarded.increment();
+            log.debug("Trace chunk discarded for {} – overhead {} ms",
+                    chunk.testName(), (chunk.startNanos() + stopNanos) / 1_000_000);
+            return null;
+        }
+
+        long size = sizeOf(target);
+        bytesWritten.addAndGet(size);
+        saved.increment();
+        log.info("Trace for {} saved to {} ({} KB, overhead {} ms)", chunk.testName(), target,
+                size >> 10, (chunk.startNanos() + stopNanos) / 1_000_000);
+        attach(target);
+        return target;
+    }
+
+    /** Run-wide counters since JVM start. */
+    public static Stats stats() {
+        return new Stats(saved.sum(), discarded.sum(), overBudget.sum(), bytesWritten.get(),
+                overhead.valueAtPercentile(50) / 1_000, overhead.valueAtPercentile(99) / 1_000,
+                overhead.maxMicros() / 1_000);
+    }
+
+    public record Stats(long saved, long discarded, long overBudget, long bytesWritten,
+                        long overheadP50Millis, long overheadP99Millis, long overheadMaxMillis) {}
+
+    // ─────────────────────────────────────────────────────────────────────────
+
+    private static long budgetBytes() {
+        return (long) ConfigReader.resolveInt("trace.budget.mb", 512) << 20;
+    }
+
+    private static String fileName(String testName) {
+        return testName.replaceAll("[^A-Za-z0-9._#-]", "_");
+    }
+
+    private static long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static void attach(Path zip) {
+        // Streamed from disk – the zip is never held in memory
+        try (InputStream in = Files.newInputStream(zip)) {
+            Allure.addAttachment("Playwright trace", "application/zip", in, "zip");
+        } catch (IOException e) {
+            log.warn("Could not attach trace {}: {}", zip, e.getMessage());
+        }
+    }
+
+    private record Chunk(String testName, BrowserContext context, long startNanos) {}
+}
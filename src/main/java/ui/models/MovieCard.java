@@ -0,0 +1,11 @@
+package ui.models;
+
+/**
+ * One card of the TMDB Upcoming Movies listing, read in a single DOM snapshot.
+ *
+ * @param id          TMDB movie id (the card's {@code data-id}), may be null if the card has none
+ * @param title       title as rendered in the card heading
+ * @param releaseDate release date text as displayed (e.g. "Mar 14, 2025")
+ * @param href        absolute URL of the movie's detail page, may be null
+ */
+public record MovieCard(String id, String title, String releaseDate, String href) {}
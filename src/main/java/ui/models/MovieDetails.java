@@ -0,0 +1,21 @@
+package ui.models;
+
+import java.util.List;
+
+/**
+ * Every field of a TMDB Movie Details page, read in a single DOM snapshot.
+ *
+ * @param url              page URL the snapshot was taken from
+ * @param title            title shown in the hero header
+ * @param originalLanguage original language value (e.g. "English"), without its label
+ * @param overview         plot overview text
+ * @param releaseDate      release date text as displayed
+ * @param genres           genre names, may be empty – never null
+ */
+public record MovieDetails(String url, String title, String originalLanguage, String overview,
+                           String releaseDate, List<String> genres) {
+
+    public MovieDetails {
+        genres = genres == null ? List.of() : List.copyOf(genres);
+    }
+}
@@ -0,0 +1,260 @@
+package ui.pages;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.PlaywrightException;
+import com.microsoft.playwright.TimeoutError;
+import com.microsoft.playwright.options.WaitUntilState;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import ui.models.MovieCard;
+import ui.models.MovieDetails;
+import utils.AdaptiveTimeouts;
+import utils.LatencyHistogram;
+
+/**
+ * Opens the detail page of every given movie card and checks its fields, keeping up to
+ * {@code concurrency} pages loading at once.
+ *
+ * Playwright objects are thread-affine, so the concurrency lives in the browser, not in
+ * Java threads: the calling thread keeps a window of pages in the given context, starts
+ * a navigation on each free one, then visits them in order – while it waits for or
+ * checks one page, the others keep loading.  Total time therefore scales with
+ * {@code movies / concurrency}, not with the number of movies.
+ *
+ * Pages share the caller's context, so HAR replay and the network profile apply to them
+ * too.  Load latency is the browser's own navigation timing (DOMContentLoaded), so it is
+ * not inflated by the time a finished page waited for its turn.
+ */
+public final class MovieDetailsCrawler {
+
+    private static final Logger log = LogManager.getLogger(MovieDetailsCrawler.class);
+
+    private static final String NAVIGATE_JS = "url => { location.href = url; }";
+    private static final String LOAD_MS_JS  =
+            "() => { const n = performance.getEntriesByType('navigation')[0];"
+          + " return n ? Math.round(n.domContentLoadedEventEnd) : -1; }";
+
+    private final BrowserContext context;
+    private final int            concurrency;
+
+    /**
+     * @param context      context to open the detail pages in (usually {@code page.context()})
+     * @param concurrency  maximum number of detail pages loading at the same time
+     */
+    public MovieDetailsCrawler(BrowserContext context, int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalStateException("Crawler concurrency must be at least 1, was " + concurrency);
+        }
+        this.context     = context;
+        this.concurrency = concurrency;
+    }
+
+    /** Checks title, language, overview, release date and genres of every card's detail page. */
+    public Report crawl(List<MovieCard> cards) {
+        return crawl(cards.stream());
+    }
+
+    /**
+     * Same, pulling cards from {@code cards} only as pages of the window free up – a lazy
+     * stream (e.g. {@link UpcomingMoviesPage#streamAllMovies()}) keeps fetching its next
+     * listing page while the detail pages load.
+     */
+    public Report crawl(Stream<MovieCard> cards) {
+        long start = System.nanoTime();
+        Iterator<MovieCard> pending  = cards.iterator();
+        Deque<Slot>         inFlight = new ArrayDeque<>();
+        List<Page>          pages    = new ArrayList<>();
+        List<PageResult>    results  = new ArrayList<>();
+
+        try {
+            while (pending.hasNext() || !inFlight.isEmpty()) {
+                // Fill the window – every free page starts loading its next movie
+                while (inFlight.size() < concurrency && pending.hasNext()) {
+                    MovieCard card = pending.next();
+                    if (card.href() == null) {
+                        results.add(new PageResult(card, -1, 0, List.of("card has no detail link")));
+                        continue;
+                    }
+                    Page page = pages.size() < concurrency ? newPage(pages) : reusable(pages, inFlight);
+                    inFlight.add(start(page, card));
+                }
+                // Visit the oldest navigation; the rest keep loading meanwhile
+                Slot slot = inFlight.poll();
+                if (slot != null) {
+                    results.add(check(slot, pages));
+                }
+            }
+        } finally {
+            pages.forEach(MovieDetailsCrawler::closeQuietly);
+        }
+
+        Report report = new Report(concurrency, System.nanoTime() - start, results);
+        log.info("Crawled {} detail pages – {}", results.size(), report.summary());
+        return report;
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────
+
+    private Page newPage(List<Page> pages) {
+        Page page = context.newPage();
+        pages.add(page);
+        return page;
+    }
+
+    /** A page of the window that is not waiting on a navigation. */
+    private static Page reusable(List<Page> pages, Deque<Slot> inFlight) {
+        return pages.stream()
+                .filter(p -> inFlight.stream().noneMatch(s -> s.page() == p))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No free page in the crawl window"));
+    }
+
+    private static Slot start(Page page, MovieCard card) {
+        String previousUrl = page.url();
+        page.evaluate(NAVIGATE_JS, card.href());   // returns at once – the page loads on its own
+        return new Slot(page, card, previousUrl, System.nanoTime());
+    }
+
+    private static PageResult check(Slot slot, List<Page> pages) {
+        Page page = slot.page();
+        List<String> problems = new ArrayList<>();
+        long loadMillis = -1;
+        try {
+            page.waitForURL(url -> !url.equals(slot.previousUrl()), new Page.WaitForURLOptions()
+                    .setWaitUntil(WaitUntilState.DOMCONTENTLOADED)
+                    .setTimeout(AdaptiveTimeouts.timeoutFor("details.document")));
+            loadMillis = ((Number) page.evaluate(LOAD_MS_JS)).longValue();
+            AdaptiveTimeouts.record("details.document", loadMillis);
+
+            MovieDetails details = new MovieDetailsPage(page).snapshot();
+            if (!details.title().equals(slot.card().title().trim())) {
+                problems.add("title '" + details.title() + "' != listing '" + slot.card().title() + "'");
+            }
+            requireText(problems, "original language", details.originalLanguage());
+            requireText(problems, "overview", details.overview());
+            requireText(problems, "release date", details.releaseDate());
+            if (details.genres().isEmpty()) {
+                problems.add("no genres");
+            }
+        } catch (PlaywrightException e) {
+            if (e instanceof TimeoutError && loadMillis < 0) {
+                AdaptiveTimeouts.recordTimeout("details.document");   // the document never arrived
+            }
+            problems.add("could not load or read page: " + e.getMessage().lines().findFirst().orElse(""));
+            // The page may still be mid-navigation – replace it so the next movie starts clean
+            pages.replaceAll(p -> p == page ? replace(p) : p);
+        }
+        long totalMillis = (System.nanoTime() - slot.startNanos()) / 1_000_000;
+        if (!problems.isEmpty()) {
+            log.warn("{} ({}): {}", slot.card().title(), slot.card().href(), problems);
+        }
+        return new PageResult(slot.card(), loadMillis, totalMillis, List.copyOf(problems));
+    }
+
+    private static void requireText(List<String> problems, String field, String value) {
+        if (value == null || value.isBlank()) {
+            problems.add(field + " is blank");
+        }
+    }
+
+    private static Page replace(Page broken) {
+        BrowserContext ctx = broken.context();
+        closeQuietly(broken);
+        return ctx.newPage();
+    }
+
+    private static void closeQuietly(Page page) {
+        try {
+            page.close();
+        } catch (PlaywrightException e) {
+            log.debug("Ignoring error closing crawl page: {}", e.getMessage());
+        }
+    }
+
+    private record Slot(Page page, MovieCard card, String previousUrl, long startNanos) {}
+
+    // ─────────────────────────────────────────────────────────────────────────
+
+    /**
+     * One detail page.
+     *
+     * @param loadMillis   browser-measured time to DOMContentLoaded, -1 if it never loaded
+     * @param totalMillis  from starting the navigation to the end of the checks
+     * @param problems     failed checks, empty when the page is fine
+     */
+    public record PageResult(MovieCard card, long loadMillis, long totalMillis, List<String> problems) {
+
+        public boolean ok() {
+            return problems.isEmpty();
+        }
+    }
+
+    /** Outcome of one {@link #crawl(List)}: per-page results, throughput and load latency. */
+    public static final class Report {
+
+        private static final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+        private final int              concurrency;
+        private final long             elapsedNanos;
+        private final List<PageResult> pages;
+        private final LatencyHistogram loadLatency = new LatencyHistogram();
+
+        Report(int concurrency, long elapsedNanos, List<PageResult> pages) {
+            this.concurrency  = concurrency;
+            this.elapsedNanos = elapsedNanos;
+            this.pages        = List.copyOf(pages);
+            pages.stream().filter(p -> p.loadMillis() >= 0)
+                 .forEach(p -> loadLatency.recordMicros(p.loadMillis() * 1_000));
+        }
+
+        public List<PageResult> pages() {
+            return pages;
+        }
+
+        public List<PageResult> failures() {
+            return pages.stream().filter(p -> !p.ok()).toList();
+        }
+
+        public double pagesPerSecond() {
+            return pages.size() / Math.max(elapsedNanos / 1e9, 1e-9);
+        }
+
+        /** concurrency, page / failure counts, elapsed time, throughput and load latency (ms). */
+        public Map<String, Object> summary() {
+            Map<String, Object> s = new LinkedHashMap<>();
+            s.put("concurrency", concurrency);
+            s.put("pages", pages.size());
+            s.put("failures", failures().size());
+            s.put("elapsedMillis", elapsedNanos / 1_000_000);
+            s.put("pagesPerSec", Math.round(pagesPerSecond() * 100) / 100.0);
+            s.put("loadP50Ms", loadLatency.valueAtPercentile(50) / 1000.0);
+            s.put("loadP95Ms", loadLatency.valueAtPercentile(95) / 1000.0);
+            s.put("loadMaxMs", loadLatency.maxMicros() / 1000.0);
+            return s;
+        }
+
+        public String toJson() {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("summary", summary());
+            json.put("pages", pages);
+            try {
+                return mapper.writeValueAsString(json);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Could not serialise crawl report", e);
+            }
+        }
+    }
+}
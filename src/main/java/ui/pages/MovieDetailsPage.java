@@ -1,11 +1,14 @@
 package ui.pages;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 
-import com.microsoft.playwright.Locator;
 import com.microsoft.playwright.Page;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import ui.models.MovieDetails;
 
 /**
  * Page Object for a TMDB Movie Details page.
@@ -18,88 +21,127 @@ import org.apache.logging.log4j.Logger;
  *  - Replaced System.out with Log4j.
  *  - Locators resolved lazily (when first accessed) rather than all up-front in the
  *    constructor – the page may still be loading when the constructor runs.
+ *  - All fields are read in ONE in-page evaluation into an immutable {@link MovieDetails}
+ *    snapshot, shared by every page object on the same Page and dropped automatically
+ *    when the main frame navigates – the getters below no longer touch the DOM each.
  */
 public class MovieDetailsPage {
 
     private static final Logger log = LogManager.getLogger(MovieDetailsPage.class);
 
-    private static final String MOVIE_TITLE_XPATH   = "//div[@class='single_column']//h2/a";
-    private static final String LANGUAGE_CSS        = "p:has(bdi:text('Original Language'))";
-    private static final String OVERVIEW_XPATH      = "//*[@class='overview']/p";
-    private static final String RELEASE_DATE_XPATH  = "//*[@class='release']";
-    private static final String GENRES_XPATH        = "//span[@class='genres']/a";
+    // Element selectors live in the Selector registry; the language fact is found by its label
+    private static final String LANGUAGE_LABEL = "Original Language";
 
-    private final Page page;
+    /**
+     * Runs inside the browser on the title element (so Playwright first waits for the
+     * title to be attached) and reads every other field from the same document.
+     */
+    private static final String SNAPSHOT_JS = """
+            (title, [overviewCss, releaseCss, genresCss, languageLabel]) => {
+              const text = css => { const n = document.querySelector(css); return n ? n.innerText.trim() : ''; };
+              const language = [...document.querySelectorAll('p')]
+                .find(p => [...p.querySelectorAll('bdi')].some(b => b.textContent.includes(languageLabel)));
+              return {
+                url: location.href,
+                title: title.innerText.trim(),
+                language: language ? language.textContent.replace(languageLabel, '').trim() : '',
+                overview: text(overviewCss),
+                releaseDate: text(releaseCss),
+                genres: [...document.querySelectorAll(genresCss)].map(g => g.innerText)
+              };
+            }""";
+
+    // Page → its current snapshot; entries go away with the Page
+    private static final Map<Page, Snapshot> snapshots = Collections.synchronizedMap(new WeakHashMap<>());
 
-    // FIX: was public mutable String – now private with a getter
-    private String movieTitle = "";
+    private final Page page;
 
     public MovieDetailsPage(Page page) {
         this.page = page;
         log.info("MovieDetailsPage created");
     }
 
+    /**
+     * Every detail field, read with a single driver call.  Cached for the current URL and
+     * discarded as soon as the main frame navigates, so it is never stale.
+     */
+    @SuppressWarnings("unchecked")
+    public MovieDetails snapshot() {
+        Snapshot cache = snapshots.computeIfAbsent(page, Snapshot::watching);
+        MovieDetails details = cache.details;
+        if (details != null && details.url().equals(page.url())) {
+            return details;
+        }
+        Map<String, Object> raw = (Map<String, Object>) Selector.DETAILS_TITLE.locate(page).evaluate(SNAPSHOT_JS,
+                List.of(Selector.DETAILS_OVERVIEW.css(), Selector.DETAILS_RELEASE.css(),
+                        Selector.DETAILS_GENRES.css(), LANGUAGE_LABEL));
+        details = new MovieDetails(
+                (String) raw.get("url"),
+                (String) raw.get("title"),
+                (String) raw.get("language"),
+                (String) raw.get("overview"),
+                (String) raw.get("releaseDate"),
+                (List<String>) raw.get("genres"));
+        cache.details = details;
+        log.info("Movie details snapshot for '{}' ({})", details.title(), details.url());
+        return details;
+    }
+
     // ──────────────────────────────────────────────────────────────────────────
-    // Public accessors – each one resolves its locator fresh to avoid staleness
+    // Field accessors – all served from the same snapshot
     // ──────────────────────────────────────────────────────────────────────────
 
-    /**
-     * Returns the movie title shown in the hero header.
-     * Result is cached after the first call; call {@link #refresh()} if the page changes.
-     */
+    /** Returns the movie title shown in the hero header. */
     public String getMovieTitle() {
-        if (movieTitle.isEmpty()) {
-            movieTitle = page.locator(MOVIE_TITLE_XPATH).innerText().trim();
-            log.info("Movie title on details page: '{}'", movieTitle);
-        }
-        return movieTitle;
+        return snapshot().title();
     }
 
     /** Returns the original language value (e.g. "English"). */
     public String getOriginalLanguage() {
-        Locator languageBlock = page.locator(LANGUAGE_CSS);
-        // Strip the label text; textContent() includes all descendant text
-        String raw = languageBlock.textContent().replace("Original Language", "").trim();
-        log.debug("Original language: {}", raw);
-        return raw;
+        return snapshot().originalLanguage();
     }
 
     /** Returns the plot overview text. */
     public String getOverview() {
-        String text = page.locator(OVERVIEW_XPATH).innerText().trim();
-        log.debug("Overview (truncated): {}", text.length() > 80 ? text.substring(0, 80) + "…" : text);
-        return text;
+        return snapshot().overview();
     }
 
     /** Returns the release date string as displayed on the page. */
     public String getReleaseDate() {
-        String date = page.locator(RELEASE_DATE_XPATH).innerText().trim();
-        log.debug("Release date: {}", date);
-        return date;
+        return snapshot().releaseDate();
     }
 
     /** Returns the list of genre names (may be empty, never null). */
     public List<String> getGenres() {
-        List<String> genres = page.locator(GENRES_XPATH).allInnerTexts();
-        log.debug("Genres ({}): {}", genres.size(), genres);
-        return genres;
+        return snapshot().genres();
     }
 
-    /**
-     * Convenience: logs all details page fields at INFO level.
-     * Useful for exploratory runs; in production prefer individual getters for assertions.
-     */
+    /** Convenience: logs all details page fields at INFO level (no extra driver calls). */
     public void logAllDetails() {
+        MovieDetails d = snapshot();
         log.info("=== Movie Details ===");
-        log.info("Title    : {}", getMovieTitle());
-        log.info("Language : {}", getOriginalLanguage());
-        log.info("Released : {}", getReleaseDate());
-        log.info("Genres   : {}", getGenres());
-        log.info("Overview : {}", getOverview());
+        log.info("Title    : {}", d.title());
+        log.info("Language : {}", d.originalLanguage());
+        log.info("Released : {}", d.releaseDate());
+        log.info("Genres   : {}", d.genres());
+        log.info("Overview : {}", d.overview());
     }
 
-    /** Clears cached values – call if the page navigates or re-renders. */
-    public void refresh() {
-        movieTitle = "";
+    // ─────────────────────────────────────────────────────────────────────────
+
+    /** Holder of one Page's snapshot; must not reference the Page (it is the weak key). */
+    private static final class Snapshot {
+
+        volatile MovieDetails details;
+
+        static Snapshot watching(Page page) {
+            Snapshot cache = new Snapshot();
+            page.onFrameNavigated(frame -> {
+                if (frame.parentFrame() == null) {
+                    cache.details = null;
+                }
+            });
+            return cache;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,87 @@
+package ui.pages;
+
+import com.microsoft.playwright.Locator;
+import com.microsoft.playwright.Page;
+
+/**
+ * Every selector the page objects use, declared once.
+ *
+ * Each entry names its strategy – a test id or accessible label where the site offers
+ * one, CSS otherwise; XPath only as a last resort (it is the slowest to evaluate and the
+ * most brittle) – and the local fixture page it must match.  {@link SelectorCheck}
+ * verifies them all against those fixtures before the UI suite starts, and reports what
+ * each one cost to resolve across the run.
+ */
+public enum Selector {
+
+    // ── Upcoming Movies listing ──────────────────────────────────────────────
+    MOVIES_MENU      (Strategy.LABEL, "Movies",                   Fixture.UPCOMING),
+    UPCOMING_LINK    (Strategy.CSS,   "a[aria-label='Upcoming']", Fixture.UPCOMING),
+    LISTING_RESULTS  (Strategy.CSS,   "#media_results",           Fixture.UPCOMING),
+    LISTING_TITLE    (Strategy.CSS,   "#media_results h2",        Fixture.UPCOMING),
+    LISTING_LINK     (Strategy.CSS,   "#media_results h2 > a",    Fixture.UPCOMING),
+
+    // ── Movie Details ────────────────────────────────────────────────────────
+    DETAILS_TITLE    (Strategy.CSS,   "div.single_column h2 > a", Fixture.DETAILS),
+    DETAILS_OVERVIEW (Strategy.CSS,   ".overview > p",            Fixture.DETAILS),
+    DETAILS_RELEASE  (Strategy.CSS,   ".release",                 Fixture.DETAILS),
+    DETAILS_GENRES   (Strategy.CSS,   "span.genres > a",          Fixture.DETAILS);
+
+    public enum Strategy { TEST_ID, LABEL, CSS, XPATH }
+
+    /** Local stand-ins (test classpath) mirroring the markup the page objects rely on. */
+    public enum Fixture {
+        UPCOMING("/fixtures/upcoming-movies.html"),
+        DETAILS("/fixtures/movie-details.html");
+
+        private final String resource;
+
+        Fixture(String resource) {
+            this.resource = resource;
+        }
+
+        public String resource() {
+            return resource;
+        }
+    }
+
+    private final Strategy strategy;
+    private final String   expression;
+    private final Fixture  fixture;
+
+    Selector(Strategy strategy, String expression, Fixture fixture) {
+        this.strategy   = strategy;
+        this.expression = expression;
+        this.fixture    = fixture;
+    }
+
+    /** Locator for this selector on {@code page}. */
+    public Locator locate(Page page) {
+        return switch (strategy) {
+            case TEST_ID -> page.getByTestId(expression);
+            case LABEL   -> page.getByLabel(expression);
+            case CSS     -> page.locator("css=" + expression);
+            case XPATH   -> page.locator("xpath=" + expression);
+        };
+    }
+
+    /** Plain CSS for in-page scripts ({@code querySelectorAll}); only for {@link Strategy#CSS} entries. */
+    public String css() {
+        if (strategy != Strategy.CSS) {
+            throw new IllegalStateException(name() + " is a " + strategy + " selector, not CSS");
+        }
+        return expression;
+    }
+
+    public Strategy strategy() {
+        return strategy;
+    }
+
+    public String expression() {
+        return expression;
+    }
+
+    public Fixture fixture() {
+        return fixture;
+    }
+}
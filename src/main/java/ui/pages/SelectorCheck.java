@@ -0,0 +1,155 @@
+package ui.pages;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Locator;
+import com.microsoft.playwright.Page;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import ui.core.ActionMetrics;
+import utils.LatencyHistogram;
+
+/**
+ * Up-front validation and run-wide cost report for the {@link Selector} registry.
+ *
+ * {@link #validate(BrowserContext)} opens each local fixture page and checks that every
+ * selector declared for it matches at least one element, timing how long it takes to
+ * resolve.  A broken selector fails the run before any test starts instead of as a
+ * timeout in the middle of one.
+ *
+ * {@link #exportCosts(Path)} joins the registry with the per-selector driver timings
+ * {@link ActionMetrics} collected during the run into {@code selectors.json}, slowest
+ * first, so expensive selectors are easy to find.
+ */
+public final class SelectorCheck {
+
+    private static final Logger log = LogManager.getLogger(SelectorCheck.class);
+
+    private static final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private static final int TIMING_ROUNDS = 5;
+
+    // What each selector looked like on the fixture – labels as ActionMetrics records them
+    private static final Map<Selector, Result> validated = new EnumMap<>(Selector.class);
+
+    private SelectorCheck() {}
+
+    /**
+     * @param matches        elements matched on the fixture page
+     * @param resolveMicros  median time of a {@code count()} round trip on the fixture
+     * @param label          the locator's description – the key ActionMetrics uses
+     */
+    public record Result(Selector selector, int matches, long resolveMicros, String label) {}
+
+    /**
+     * Checks every registered selector against its fixture.
+     *
+     * @throws IllegalStateException listing every selector that matched nothing
+     */
+    public static synchronized List<Result> validate(BrowserContext context) {
+        List<Result> results = new ArrayList<>();
+        Page page = context.newPage();
+        try {
+            for (Selector.Fixture fixture : Selector.Fixture.values()) {
+                URL url = SelectorCheck.class.getResource(fixture.resource());
+                if (url == null) {
+                    throw new IllegalStateException(fixture.resource() + " not found on the classpath");
+                }
+                page.navigate(url.toString());
+                Arrays.stream(Selector.values())
+                      .filter(s -> s.fixture() == fixture)
+                      .forEach(s -> results.add(check(page, s)));
+            }
+        } finally {
+            page.close();
+        }
+
+        results.forEach(r -> validated.put(r.selector(), r));
+        results.stream()
+               .filter(r -> r.selector().strategy() == Selector.Strategy.XPATH)
+               .forEach(r -> log.warn("Selector {} still uses XPath – prefer a test id, label or CSS", r.selector()));
+
+        List<Result> broken = results.stream().filter(r -> r.matches() == 0).toList();
+        if (!broken.isEmpty()) {
+            throw new IllegalStateException("Selectors match nothing on their fixture page: " + broken.stream()
+                    .map(r -> r.selector() + " (" + r.selector().expression() + ")").toList());
+        }
+        log.info("All {} selectors matched their fixtures", results.size());
+        return results;
+    }
+
+    /**
+     * Writes {@code selectors.json} to {@code dir}: registry entries with fixture and run-wide
+     * resolve costs.  No-op when no UI test ran.
+     */
+    public static synchronized void exportCosts(Path dir) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Selector s : Selector.values()) {
+            Result check = validated.get(s);
+            String label = check != null ? check.label() : defaultLabel(s);
+            LatencyHistogram run = label == null ? new LatencyHistogram()
+                    : ActionMetrics.merged(l -> l.equals(label) || l.startsWith(label + " >> "));
+
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("selector", s.name());
+            row.put("strategy", s.strategy());
+            row.put("expression", s.expression());
+            row.put("fixtureResolveMs", check == null ? null : check.resolveMicros() / 1000.0);
+            row.put("calls", run.count());
+            row.put("p50Ms", run.valueAtPercentile(50) / 1000.0);
+            row.put("p95Ms", run.valueAtPercentile(95) / 1000.0);
+            row.put("totalMs", Math.round(run.meanMicros() * run.count() / 1000.0));
+            rows.add(row);
+        }
+        if (validated.isEmpty() && rows.stream().allMatch(r -> (Long) r.get("calls") == 0)) {
+            return;   // no UI tests ran
+        }
+        rows.sort((a, b) -> Long.compare((Long) b.get("totalMs"), (Long) a.get("totalMs")));
+
+        try {
+            Files.createDirectories(dir);
+            Files.writeString(dir.resolve("selectors.json"), mapper.writeValueAsString(rows));
+            log.info("Selector costs written to {}", dir.resolve("selectors.json"));
+        } catch (IOException e) {
+            log.error("Could not write selector costs to {}: {}", dir, e.getMessage());
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────
+
+    private static Result check(Page page, Selector selector) {
+        Locator locator = selector.locate(page);
+        long[] micros = new long[TIMING_ROUNDS];
+        int matches = 0;
+        for (int i = 0; i < TIMING_ROUNDS; i++) {
+            long start = System.nanoTime();
+            matches = locator.count();
+            micros[i] = (System.nanoTime() - start) / 1_000;
+        }
+        Arrays.sort(micros);
+        String label = locator.toString().replaceFirst("^Locator@", "");
+        log.debug("{} – {} matches, {} µs ({})", selector, matches, micros[TIMING_ROUNDS / 2], label);
+        return new Result(selector, matches, micros[TIMING_ROUNDS / 2], label);
+    }
+
+    /** Label of CSS / XPath locators when the suite ran without validation. */
+    private static String defaultLabel(Selector s) {
+        return switch (s.strategy()) {
+            case CSS   -> "css=" + s.expression();
+            case XPATH -> "xpath=" + s.expression();
+            default    -> null;
+        };
+    }
+}
@@ -1,12 +1,24 @@
 package ui.pages;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import com.microsoft.playwright.Locator;
 import com.microsoft.playwright.Page;
+import config.ConfigReader;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import ui.models.MovieCard;
+import utils.WaitUtil;
 
 /**
  * Page Object for the TMDB Upcoming Movies listing page.
@@ -19,31 +31,96 @@ import org.apache.logging.log4j.Logger;
  *  - Navigation + locator init separated from constructor via a dedicated
  *    navigate() helper (constructor should not perform I/O-heavy work).
  *  - Replaced System.out with Log4j.
+ *  - Movie cards are read in ONE in-page evaluation instead of three driver round
+ *    trips per card, so rows can't be mismatched by a re-render halfway through.
+ *  - Navigation waits for the listing document and the first title (adaptive
+ *    timeouts) instead of a hard-coded 10 s.
+ *  - Selectors come from the {@link Selector} registry (CSS / label, checked against a
+ *    fixture before the suite); clickMovie() no longer builds a text-matching XPath.
+ *  - {@link #streamAllMovies()} walks every page of the listing lazily, prefetching
+ *    the next pages in the browser while the caller works on the current one.
  */
 public class UpcomingMoviesPage {
 
     private static final Logger log = LogManager.getLogger(UpcomingMoviesPage.class);
 
-    // XPath selectors kept as constants – easy to update and self-documenting
-    private static final String UPCOMING_LINK  = "//a[@aria-label='Upcoming']";
-    private static final String MOVIE_ID_XPATH = "//*[@id='media_results']//div[@data-id]";
-    private static final String TITLE_XPATH    = "//*[@id='media_results']//h2";
-    private static final String DATE_XPATH     = "//*[@id='media_results']//p";
-    private static final String MOVIE_LINK_TPL = "//*[@id='media_results']//h2/a[normalize-space()='%s']";
+    // Selectors live in the Selector registry; only the listing URL pattern is page-local
+    private static final String UPCOMING_URL   = "**/movie/upcoming**";
+
+    /**
+     * Runs inside the browser: zips ids ({@code div[data-id]}), titles ({@code h2}) and
+     * dates ({@code p}) under the results container by position, from one consistent
+     * snapshot of the DOM.  Text is read as whitespace-collapsed textContent: innerText
+     * depends on layout, which a prefetched DOMParser document does not have, so the
+     * rendered and prefetched pages would otherwise disagree on spacing.
+     */
+    private static final String EXTRACT_CARDS_JS = """
+            root => {
+              const text   = e => e.textContent.replace(/\\s+/g, ' ').trim();
+              const ids    = [...root.querySelectorAll('div[data-id]')].map(e => e.getAttribute('data-id'));
+              const dates  = [...root.querySelectorAll('p')].map(text);
+              return [...root.querySelectorAll('h2')].map((h2, i) => {
+                const a = h2.querySelector('a');
+                return { id: ids[i] ?? null, title: text(h2), date: dates[i] ?? '', href: a ? a.href : null };
+              });
+            }""";
+
+    /**
+     * Runs inside the browser: starts fetching listing page {@code url} in the background
+     * and parks a promise of its extracted cards under {@code key}.  Only the cards are
+     * kept, not the HTML.
+     */
+    private static final String PREFETCH_JS = """
+            ([url, key, resultsCss]) => {
+              const extract = %s;
+              const store = window.__upcomingPrefetch = window.__upcomingPrefetch || {};
+              store[key] = fetch(url, { credentials: 'same-origin' })
+                .then(r => r.ok ? r.text() : '')
+                .then(html => {
+                  const root = new DOMParser().parseFromString(html, 'text/html').querySelector(resultsCss);
+                  return root ? extract(root) : [];
+                })
+                .catch(e => ({ error: String(e) }));
+            }""".formatted(EXTRACT_CARDS_JS);
+
+    /** Hands over (and forgets) the promise parked by {@link #PREFETCH_JS}; null if there is none. */
+    private static final String TAKE_PREFETCHED_JS = """
+            key => {
+              const store = window.__upcomingPrefetch || {};
+              const cards = store[key];
+              delete store[key];
+              return cards ?? null;
+            }""";
+
+    private static final String CLEAR_PREFETCHED_JS = "() => { delete window.__upcomingPrefetch; }";
 
     private final Page page;
 
     // FIX: was public static – that shares state across all test instances/threads
     private Locator movieTitles;
-    private Locator movieDates;
-    private Locator movieID;
 
     // FIX: was public mutable String – tests read it directly, creating coupling
     private String lastClickedMovieName = "";
 
     public UpcomingMoviesPage(Page page) {
+        this(page, true);
+    }
+
+    private UpcomingMoviesPage(Page page, boolean navigate) {
         this.page = page;
-        navigate();
+        if (navigate) {
+            navigate();
+        } else {
+            initLocators();
+        }
+    }
+
+    /**
+     * Wraps a page that already shows the upcoming listing (e.g. a deep link or a
+     * local fixture) without clicking through the site navigation.
+     */
+    public static UpcomingMoviesPage forCurrentPage(Page page) {
+        return new UpcomingMoviesPage(page, false);
     }
 
     /**
@@ -52,16 +129,21 @@ public class UpcomingMoviesPage {
      */
     private void navigate() {
         log.info("Navigating to Upcoming Movies page");
-        page.getByLabel("Movies").click();
-        page.locator(UPCOMING_LINK).click();
+        Selector.MOVIES_MENU.locate(page).click();
+
+        // Done as soon as the listing document is parsed – not on network idle
+        WaitUtil.waitForDocument(page, UPCOMING_URL, "upcoming.document",
+                () -> Selector.UPCOMING_LINK.locate(page).click());
 
         // Initialise locators AFTER navigation so they resolve against the correct DOM
-        movieID     = page.locator(MOVIE_ID_XPATH);
-        movieTitles = page.locator(TITLE_XPATH);
-        movieDates  = page.locator(DATE_XPATH);
+        initLocators();
+    }
 
-        // Explicit wait – waits up to 10 s for the first title (replaces implicit polling)
-        movieTitles.first().waitFor(new Locator.WaitForOptions().setTimeout(10_000));
+    private void initLocators() {
+        movieTitles = Selector.LISTING_TITLE.locate(page);
+
+        // Explicit wait for the first title, timeout learned from earlier runs
+        WaitUtil.waitForVisible(movieTitles.first(), "upcoming.titles");
         log.info("Upcoming movies page loaded – {} titles visible", movieTitles.count());
     }
 
@@ -69,21 +151,52 @@ public class UpcomingMoviesPage {
      * Returns a map of (id + " - " + title) → release-date for every movie on the page.
      */
     public Map<String, String> getUpcomingMovies() {
-        int count = movieTitles.count();
-        log.info("Fetching {} upcoming movies", count);
+        List<MovieCard> cards = getMovieCards();
 
         Map<String, String> movieMap = new LinkedHashMap<>();
-        for (int i = 0; i < count; i++) {
-            String id   = movieID.nth(i).getAttribute("data-id");
-            String name = movieTitles.nth(i).innerText();
-            String date = movieDates.nth(i).innerText();
-            movieMap.put(id + " - " + name, date);
+        for (MovieCard card : cards) {
+            movieMap.put(card.id() + " - " + card.title(), card.releaseDate());
         }
 
         log.debug("Movie map: {}", movieMap);
         return movieMap;
     }
 
+    /**
+     * Returns every movie card on the page, in display order, read with a single
+     * driver call.  The list is immutable.
+     */
+    @SuppressWarnings("unchecked")
+    public List<MovieCard> getMovieCards() {
+        List<MovieCard> cards = toCards(
+                (List<Map<String, Object>>) Selector.LISTING_RESULTS.locate(page).evaluate(EXTRACT_CARDS_JS));
+        log.info("Fetched {} upcoming movies", cards.size());
+        return cards;
+    }
+
+    /**
+     * Every movie of the listing, across all of its pages ({@code ?page=N}, the same pages
+     * TMDB's "Load More" appends), read lazily in display order.
+     *
+     * The rendered page is read first; while the caller works through it, the next
+     * {@code listing.prefetch.pages} pages (default 1) are already being fetched and
+     * parsed in the browser.  At most that many pages plus the current one are held at
+     * any time, so short-circuiting operations ({@code limit}, {@code anyMatch},
+     * {@code findFirst}…) stop fetching early and the full listing is never in memory.
+     * The walk ends at the first empty page, or after {@code listing.maxPages} (0 = no cap).
+     *
+     * Must be consumed on the thread that owns the page; close the stream (try-with-
+     * resources) to drop prefetched pages that were not consumed.
+     */
+    public Stream<MovieCard> streamAllMovies() {
+        ListingIterator it = new ListingIterator(
+                Math.max(0, ConfigReader.resolveInt("listing.prefetch.pages", 1)),
+                ConfigReader.resolveInt("listing.maxPages", 0));
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(it,
+                        Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(it::close);
+    }
+
     /**
      * Clicks the movie at position {@code index} (0-based) in the upcoming list
      * and returns a {@link MovieDetailsPage} for the opened detail view.
@@ -91,12 +204,11 @@ public class UpcomingMoviesPage {
      * @param index 0-based position in the list
      */
     public MovieDetailsPage clickMovie(int index) {
-        lastClickedMovieName = movieTitles.nth(index).innerText().trim();
+        // The card's own link by position – no text-matching XPath, so quotes in titles are harmless
+        Locator link = Selector.LISTING_LINK.locate(page).nth(index);
+        lastClickedMovieName = link.innerText().trim();
         log.info("Clicking movie [{}]: '{}'", index, lastClickedMovieName);
-
-        // Build a tight locator using the actual title text; normalize-space handles whitespace
-        String selector = String.format(MOVIE_LINK_TPL, lastClickedMovieName);
-        page.locator(selector).click();
+        link.click();
 
         log.info("Navigated to details page for '{}'", lastClickedMovieName);
         return new MovieDetailsPage(page);
@@ -106,4 +218,98 @@ public class UpcomingMoviesPage {
     public String getLastClickedMovieName() {
         return lastClickedMovieName;
     }
+
+    // ─────────────────────────────────────────────────────────────────────────
+
+    private static List<MovieCard> toCards(List<Map<String, Object>> raw) {
+        List<MovieCard> cards = new ArrayList<>(raw.size());
+        for (Map<String, Object> row : raw) {
+            cards.add(new MovieCard(
+                    (String) row.get("id"),
+                    (String) row.get("title"),
+                    (String) row.get("date"),
+                    (String) row.get("href")));
+        }
+        return List.copyOf(cards);
+    }
+
+    /** Page-by-page cursor behind {@link #streamAllMovies()}. */
+    private final class ListingIterator implements Iterator<MovieCard> {
+
+        private final String listingUrl;
+        private final int    prefetch;
+        private final int    maxPages;
+
+        private Iterator<MovieCard> current    = Collections.emptyIterator();
+        private int                 loaded     = 0;   // pages handed to the caller so far
+        private int                 requested  = 1;   // highest page a prefetch was started for
+        private boolean             exhausted;
+
+        ListingIterator(int prefetch, int maxPages) {
+            String url = page.url();
+            this.listingUrl = url.contains("?") ? url.substring(0, url.indexOf('?')) : url;
+            this.prefetch   = prefetch;
+            this.maxPages   = maxPages;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext() && !exhausted) {
+                List<MovieCard> next = loadNextPage();
+                exhausted = next.isEmpty() || (maxPages > 0 && loaded >= maxPages);
+                current = next.iterator();
+            }
+            return current.hasNext();
+        }
+
+        @Override
+        public MovieCard next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+
+        void close() {
+            page.evaluate(CLEAR_PREFETCHED_JS);
+        }
+
+        private List<MovieCard> loadNextPage() {
+            int number = ++loaded;
+            List<MovieCard> cards = number == 1 ? getMovieCards() : takePage(number);
+
+            // Keep the next pages loading while the caller works through this one
+            int last = maxPages > 0 ? Math.min(number + prefetch, maxPages) : number + prefetch;
+            if (!cards.isEmpty()) {
+                while (requested < last) {
+                    requested++;
+                    page.evaluate(PREFETCH_JS, List.of(pageUrl(requested), requested, Selector.LISTING_RESULTS.css()));
+                }
+            }
+            return cards;
+        }
+
+        @SuppressWarnings("unchecked")
+        private List<MovieCard> takePage(int number) {
+            long start = System.nanoTime();
+            Object result = page.evaluate(TAKE_PREFETCHED_JS, number);
+            if (result == null) {
+                // Not prefetched (prefetch=0, or the page navigated) – fetch it now
+                page.evaluate(PREFETCH_JS, List.of(pageUrl(number), number, Selector.LISTING_RESULTS.css()));
+                requested = Math.max(requested, number);
+                result = page.evaluate(TAKE_PREFETCHED_JS, number);
+            }
+            if (result instanceof Map<?, ?> error) {
+                throw new IllegalStateException("Could not load upcoming page " + number + ": " + error.get("error"));
+            }
+            List<MovieCard> cards = toCards((List<Map<String, Object>>) result);
+            log.debug("Upcoming page {} – {} movies, waited {} ms", number, cards.size(),
+                    (System.nanoTime() - start) / 1_000_000);
+            return cards;
+        }
+
+        private String pageUrl(int number) {
+            return listingUrl + "?page=" + number;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,164 @@
+package utils;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import config.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Timeouts learned from how long each named wait point took in earlier runs.
+ *
+ * Every successful wait records its duration; the last {@value #WINDOW} samples per
+ * wait point are kept in {@code wait.history.file} (default target/wait-history.json)
+ * between runs.  The timeout is {@code p95 × wait.timeout.factor}, clamped to
+ * [{@code wait.timeout.min.ms}, {@code wait.timeout.max.ms}]; with fewer than
+ * {@value #MIN_SAMPLES} samples the max is used.  A wait that normally takes 800 ms
+ * then fails after a few seconds, not after the blanket 15 s.
+ *
+ * A wait that times out records the max as its sample ({@link #recordTimeout}), and while
+ * such a sample is in the window the point keeps the max – otherwise only fast successes
+ * would be remembered and the timeout would ratchet down run after run.
+ *
+ * Samples are scoped by environment ({@code wait.history.scope}, default
+ * {@code <baseUrl host>@<machine>}), so a CI agent against staging and a laptop against
+ * production share one history file without sharing timeouts.
+ */
+public final class AdaptiveTimeouts {
+
+    private static final Logger log = LogManager.getLogger(AdaptiveTimeouts.class);
+
+    static final int         WINDOW      = 50;   // also trims merged shard histories (ShardMerger)
+    private static final int MIN_SAMPLES = 5;
+
+    private static final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private static final Map<String, Deque<Long>> samples = new ConcurrentHashMap<>(load());
+
+    private static final String scope = scope();
+
+    private AdaptiveTimeouts() {}
+
+    /** Timeout in ms for the named wait point. */
+    public static double timeoutFor(String waitPoint) {
+        long max = ConfigReader.resolveInt("wait.timeout.max.ms", 15_000);
+        long min = ConfigReader.resolveInt("wait.timeout.min.ms", 2_000);
+        double factor = Double.parseDouble(ConfigReader.resolve("wait.timeout.factor", "3"));
+
+        List<Long> sorted = snapshot(scoped(waitPoint));
+        sorted.sort(null);
+        if (sorted.size() < MIN_SAMPLES || sorted.get(sorted.size() - 1) >= max) {
+            return max;   // too little history, or a recent timeout
+        }
+        long p95 = sorted.get((int) Math.ceil(sorted.size() * 0.95) - 1);
+        return Math.max(min, Math.min(max, p95 * factor));
+    }
+
+    /** Records how long a successful wait took. */
+    public static void record(String waitPoint, long millis) {
+        Deque<Long> window = samples.computeIfAbsent(scoped(waitPoint), p -> new ArrayDeque<>());
+        synchronized (window) {
+            if (window.size() == WINDOW) {
+                window.removeFirst();
+            }
+            window.addLast(millis);
+        }
+    }
+
+    /**
+     * Records a wait that timed out.  Its real duration is unknown – at least the timeout –
+     * so the max goes into the window and the point waits the max until it ages out.
+     */
+    public static void recordTimeout(String waitPoint) {
+        record(waitPoint, ConfigReader.resolveInt("wait.timeout.max.ms", 15_000));
+        log.warn("Wait point {} timed out – using wait.timeout.max.ms for it until the window recovers", waitPoint);
+    }
+
+    /** Persists the sample windows for the next run.  Call once at suite end. */
+    public static void save() {
+        if (samples.isEmpty()) {
+            return;
+        }
+        Map<String, List<Long>> out = new TreeMap<>();
+        samples.keySet().forEach(point -> out.put(point, snapshot(point)));
+        Path file = historyFile();
+        try {
+            if (file.toAbsolutePath().getParent() != null) {
+                Files.createDirectories(file.toAbsolutePath().getParent());
+            }
+            Files.writeString(file, mapper.writeValueAsString(out));
+            log.info("Wait history for {} wait points saved to {}", out.size(), file);
+        } catch (IOException e) {
+            log.warn("Could not save wait history to {}: {}", file, e.getMessage());
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────
+
+    private static List<Long> snapshot(String waitPoint) {
+        Deque<Long> window = samples.get(waitPoint);
+        if (window == null) {
+            return new ArrayList<>();
+        }
+        synchronized (window) {
+            return new ArrayList<>(window);
+        }
+    }
+
+    /** History key of a wait point – other environments' samples stay in the file untouched. */
+    private static String scoped(String waitPoint) {
+        return scope + "/" + waitPoint;
+    }
+
+    private static String scope() {
+        String configured = ConfigReader.resolve("wait.history.scope", "");
+        if (!configured.isEmpty()) {
+            return configured;
+        }
+        String host = URI.create(ConfigReader.resolve("baseUrl", "")).getHost();
+        String machine;
+        try {
+            machine = InetAddress.getLocalHost().getHostName();
+        } catch (IOException e) {
+            machine = System.getenv().getOrDefault("HOSTNAME", "localhost");
+        }
+        return (host == null ? "default" : host) + "@" + machine;
+    }
+
+    private static Path historyFile() {
+        return Paths.get(ConfigReader.resolve("wait.history.file", "target/wait-history.json"));
+    }
+
+    private static Map<String, Deque<Long>> load() {
+        Map<String, Deque<Long>> loaded = new ConcurrentHashMap<>();
+        Path file = historyFile();
+        if (!Files.isRegularFile(file)) {
+            return loaded;
+        }
+        try {
+            Map<String, List<Long>> raw = mapper.readValue(file.toFile(), new TypeReference<>() {});
+            raw.forEach((point, values) -> {
+                List<Long> recent = values.subList(Math.max(0, values.size() - WINDOW), values.size());
+                loaded.put(point, new ArrayDeque<>(recent));
+            });
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable wait history {}: {}", file, e.getMessage());
+        }
+        return loaded;
+    }
+}
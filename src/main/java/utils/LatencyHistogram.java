@@ -0,0 +1,119 @@
+package utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free, fixed-memory latency histogram in the style of HdrHistogram.
+ *
+ * Values are microseconds.  Buckets are log-linear: exact below 128 µs, then 64
+ * sub-buckets per power of two, so any recorded value is reported within ~1.6 %.
+ * The whole range of {@code long} fits in under 4 000 counters (~30 KB), and
+ * {@link #recordMicros(long)} is safe from any number of threads.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BITS   = 7;                       // 128 exact values
+    private static final int HALF       = 1 << (SUB_BITS - 1);     // 64 sub-buckets per octave
+    private static final int BUCKETS    = (64 - SUB_BITS + 1) * HALF + HALF;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder       total  = new LongAdder();
+    private final LongAdder       sum    = new LongAdder();
+    private final AtomicLong      max    = new AtomicLong();
+
+    /** Records one sample; negative values are clamped to 0. */
+    public void recordMicros(long micros) {
+        long v = Math.max(0, micros);
+        counts.incrementAndGet(index(v));
+        total.increment();
+        sum.add(v);
+        max.accumulateAndGet(v, Math::max);
+    }
+
+    /** Convenience for {@code System.nanoTime()} deltas. */
+    public void recordNanos(long nanos) {
+        recordMicros(nanos / 1_000);
+    }
+
+    public long count() {
+        return total.sum();
+    }
+
+    public long maxMicros() {
+        return max.get();
+    }
+
+    public double meanMicros() {
+        long n = count();
+        return n == 0 ? 0 : (double) sum.sum() / n;
+    }
+
+    /**
+     * Returns the smallest value such that {@code percentile}% of samples are at or below it
+     * (reported as the top of its bucket, like HdrHistogram), or 0 when empty.
+     */
+    public long valueAtPercentile(double percentile) {
+        long n = count();
+        if (n == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(n * Math.min(100.0, percentile) / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(highestValue(i), maxMicros());
+            }
+        }
+        return maxMicros();
+    }
+
+    /** Adds every sample of {@code other} to this histogram. */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long c = other.counts.get(i);
+            if (c != 0) {
+                counts.addAndGet(i, c);
+            }
+        }
+        total.add(other.total.sum());
+        sum.add(other.sum.sum());
+        max.accumulateAndGet(other.max.get(), Math::max);
+    }
+
+    /** count / mean / p50 / p90 / p99 / p999 / max – the summary every report uses. */
+    public Map<String, Object> summary() {
+        Map<String, Object> s = new LinkedHashMap<>();
+        s.put("count", count());
+        s.put("meanMicros", Math.round(meanMicros()));
+        s.put("p50Micros", valueAtPercentile(50));
+        s.put("p90Micros", valueAtPercentile(90));
+        s.put("p99Micros", valueAtPercentile(99));
+        s.put("p999Micros", valueAtPercentile(99.9));
+        s.put("maxMicros", maxMicros());
+        return s;
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────
+
+    private static int index(long v) {
+        int shift = 64 - Long.numberOfLeadingZeros(v) - SUB_BITS;
+        if (shift <= 0) {
+            return (int) v;                                       // 0 … 127, exact
+        }
+        return (shift << (SUB_BITS - 1)) + (int) (v >>> shift);  // (v >>> shift) ∈ [64, 128)
+    }
+
+    private static long highestValue(int index) {
+        if (index < 2 * HALF) {
+            return index;
+        }
+        int  shift = index / HALF - 1;
+        long sub   = index - ((long) shift << (SUB_BITS - 1));
+        return ((sub + 1) << shift) - 1;
+    }
+}
@@ -1,19 +1,65 @@
 package utils;
 
+import config.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.testng.IRetryAnalyzer;
 import org.testng.ITestResult;
 
+/**
+ * Retries a failed test method up to {@code retry.max} times (default 1).
+ *
+ * Key improvements vs original:
+ *  - Retry budget comes from config instead of a hard-coded constant.
+ *  - Before the retry the test instance is told about it ({@link RetryAware}), so a UI
+ *    test can move the retried invocation onto a fresh context instead of reusing the
+ *    page the failed attempt left behind.
+ *  - Attached to every @Test by {@code listeners.FlakinessListener}; a failure it marked
+ *    {@value #QUARANTINED} is not retried, and a test that names {@link Never} keeps it.
+ */
 public class RetryAnalyzer implements IRetryAnalyzer {
 
-	private int count = 0;
-	private final int maxRetry = 1;
-
-	@Override
-	public boolean retry(ITestResult result) {
-		if (count < maxRetry) {
-			count++;
-			return true;
-		}
-		return false;
-	}
+    private static final Logger log = LogManager.getLogger(RetryAnalyzer.class);
+
+    /** Result attribute of a quarantined test's failure – reported as a skip, never retried. */
+    public static final String QUARANTINED = "quarantined";
+
+    // TestNG creates one analyzer per test method (and parameter set), so this counts
+    // attempts of that method only
+    private int count = 0;
+
+    /** Implemented by test classes that need to prepare for a retried invocation. */
+    public interface RetryAware {
+
+        /** Called on the test thread after {@code failed}, before the method runs again. */
+        void beforeRetry(ITestResult failed);
+    }
+
+    /**
+     * Opt-out for stateful chains – e.g. a create whose retry would re-post the same payload.
+     * TestNG's own default analyzer cannot be told apart from "not set", so it has to be this one.
+     */
+    public static final class Never implements IRetryAnalyzer {
+
+        @Override
+        public boolean retry(ITestResult result) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean retry(ITestResult result) {
+        int maxRetry = ConfigReader.resolveInt("retry.max", 1);
+        if (count >= maxRetry || result.getAttribute(QUARANTINED) != null) {
+            return false;
+        }
+        count++;
+        log.warn("Retrying {}.{} ({}/{}) after: {}", result.getTestClass().getRealClass().getSimpleName(),
+                result.getMethod().getMethodName(), count, maxRetry,
+                result.getThrowable() == null ? "failure" : result.getThrowable().getMessage());
+        if (result.getInstance() instanceof RetryAware aware) {
+            aware.beforeRetry(result);
+        }
+        return true;
+    }
 }
@@ -1,12 +1,12 @@
 package utils;
 
 import com.microsoft.playwright.Page;
+import com.microsoft.playwright.options.ScreenshotType;
+import config.ConfigReader;
 import io.qameta.allure.Allure;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.io.ByteArrayInputStream;
-
 /**
  * Captures a Playwright screenshot and attaches it to the Allure report.
  *
@@ -15,6 +15,12 @@ import java.io.ByteArrayInputStream;
  *    renders the image inline instead of offering it as a binary download.
  *  - Overloaded to accept an optional label for the attachment name.
  *  - Replaced swallowed exceptions with explicit logging.
+ *  - Only the capture runs on the test thread: the Allure attachment is a reference to
+ *    a file that {@link ScreenshotWriter} writes in the background, so failing tests
+ *    neither wait on disk I/O nor pass the image through another in-memory stream.
+ *  - Format, quality and clip come from config: {@code screenshot.format} (png | jpeg),
+ *    {@code screenshot.quality} (jpeg only, 0-100) and {@code screenshot.clip}
+ *    (fullpage | viewport | x,y,width,height).
  */
 public class ScreenshotUtil {
 
@@ -39,14 +45,40 @@ public class ScreenshotUtil {
             return;
         }
         try {
-            byte[] screenshot = page.screenshot(
-                new Page.ScreenshotOptions().setFullPage(true));   // full-page = more context
+            boolean jpeg = "jpeg".equalsIgnoreCase(ConfigReader.resolve("screenshot.format", "png"));
+            byte[] screenshot = page.screenshot(options(jpeg));
 
             // FIX: original missing MIME type caused Allure to show a download link, not image
-            Allure.addAttachment(label, "image/png", new ByteArrayInputStream(screenshot), "png");
-            log.info("Screenshot attached to Allure report: '{}'", label);
+            String source = Allure.getLifecycle().prepareAttachment(
+                    label, jpeg ? "image/jpeg" : "image/png", jpeg ? "jpg" : "png");
+            ScreenshotWriter.submit(screenshot, ScreenshotWriter.allureResultsDir().resolve(source));
+            log.info("Screenshot attached to Allure report: '{}' ({} KB)", label, screenshot.length >> 10);
         } catch (Exception e) {
             log.error("Failed to capture screenshot for '{}': {}", label, e.getMessage(), e);
         }
     }
-}
\ No newline at end of file
+
+    // ─────────────────────────────────────────────────────────────────────────
+
+    private static Page.ScreenshotOptions options(boolean jpeg) {
+        Page.ScreenshotOptions options = new Page.ScreenshotOptions()
+                .setType(jpeg ? ScreenshotType.JPEG : ScreenshotType.PNG);
+        if (jpeg) {
+            options.setQuality(ConfigReader.resolveInt("screenshot.quality", 80));
+        }
+
+        String clip = ConfigReader.resolve("screenshot.clip", "fullpage").trim();
+        if (clip.equalsIgnoreCase("fullpage")) {
+            options.setFullPage(true);   // full-page = more context
+        } else if (!clip.equalsIgnoreCase("viewport")) {
+            String[] box = clip.split(",");
+            if (box.length != 4) {
+                throw new IllegalStateException(
+                        "screenshot.clip must be fullpage, viewport or x,y,width,height but was '" + clip + "'");
+            }
+            options.setClip(Double.parseDouble(box[0].trim()), Double.parseDouble(box[1].trim()),
+                    Double.parseDouble(box[2].trim()), Double.parseDouble(box[3].trim()));
+        }
+        return options;
+    }
+}
@@ -0,0 +1,167 @@
+package utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import config.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Background writer for screenshot bytes.
+ *
+ * The test thread only captures (Playwright pages are thread-affine) and hands the bytes
+ * over; one daemon thread hashes them and writes them with a {@link FileChannel}.  Frames
+ * with the same SHA-256 as an earlier one are hard-linked to the first copy instead of
+ * written again – a run where many tests fail on the same error page stores that page once.
+ *
+ * The queue is bounded ({@code screenshot.queue.size}, default 32).  When it is full the
+ * caller writes the frame itself rather than waiting or dropping it, so memory stays
+ * bounded and no screenshot is lost.
+ */
+public final class ScreenshotWriter {
+
+    private static final Logger log = LogManager.getLogger(ScreenshotWriter.class);
+
+    private static final BlockingQueue<Frame> queue =
+            new ArrayBlockingQueue<>(Math.max(1, ConfigReader.resolveInt("screenshot.queue.size", 32)));
+
+    // content hash → first file written with it
+    private static final Map<String, Path> written = new ConcurrentHashMap<>();
+
+    private static final LongAdder     frames        = new LongAdder();
+    private static final LongAdder     duplicates    = new LongAdder();
+    private static final LongAdder     bytes         = new LongAdder();
+    private static final LongAdder     callerWrites  = new LongAdder();
+    private static final LongAdder     failures      = new LongAdder();
+    private static final AtomicInteger inFlight      = new AtomicInteger();
+    private static final AtomicInteger maxQueued     = new AtomicInteger();
+
+    static {
+        Thread worker = new Thread(ScreenshotWriter::drain, "screenshot-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    private ScreenshotWriter() {}
+
+    /** Queues {@code data} to be written to {@code target}; never blocks the caller. */
+    public static void submit(byte[] data, Path target) {
+        Frame frame = new Frame(data, target);
+        inFlight.incrementAndGet();
+        if (queue.offer(frame)) {
+            maxQueued.accumulateAndGet(queue.size(), Math::max);
+        } else {
+            callerWrites.increment();
+            write(frame);
+        }
+    }
+
+    /**
+     * Waits until every queued frame is on disk (or the timeout passes).  Call before the
+     * report is generated, e.g. at suite end.
+     */
+    public static boolean flush(long timeout, TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (inFlight.get() > 0) {
+            if (System.nanoTime() > deadline) {
+                log.warn("Screenshot flush timed out with {} frames pending", inFlight.get());
+                return false;
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Run-wide counters since JVM start. */
+    public static Stats stats() {
+        return new Stats(frames.sum(), duplicates.sum(), bytes.sum(), callerWrites.sum(),
+                failures.sum(), maxQueued.get());
+    }
+
+    public record Stats(long frames, long duplicates, long bytesWritten, long callerWrites,
+                        long failures, int maxQueued) {}
+
+    // ─────────────────────────────────────────────────────────────────────────
+
+    private static void drain() {
+        while (true) {
+            try {
+                write(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private static void write(Frame frame) {
+        try {
+            Files.createDirectories(frame.target().toAbsolutePath().getParent());
+            Path first = written.putIfAbsent(sha256(frame.data()), frame.target());
+            if (first != null && link(frame.target(), first)) {
+                duplicates.increment();
+            } else {
+                try (FileChannel ch = FileChannel.open(frame.target(),
+                        StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                    ByteBuffer buf = ByteBuffer.wrap(frame.data());
+                    while (buf.hasRemaining()) {
+                        ch.write(buf);
+                    }
+                }
+                bytes.add(frame.data().length);
+            }
+            frames.increment();
+        } catch (IOException e) {
+            failures.increment();
+            log.error("Failed to write screenshot {}: {}", frame.target(), e.getMessage());
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    /** Hard link to an identical earlier frame; false when the file system cannot link. */
+    private static boolean link(Path target, Path existing) {
+        try {
+            Files.deleteIfExists(target);
+            Files.createLink(target, existing);
+            return true;
+        } catch (IOException | UnsupportedOperationException e) {
+            return false;
+        }
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /** Resolved Allure results directory (same lookup Allure itself uses). */
+    static Path allureResultsDir() {
+        return Paths.get(System.getProperty("allure.results.directory", "allure-results"));
+    }
+
+    private record Frame(byte[] data, Path target) {}
+}
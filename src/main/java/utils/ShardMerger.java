@@ -0,0 +1,253 @@
+package utils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/**
+ * Combines the output of several shard runs into one report.
+ *
+ * Args: {@code [--seed <dir>] <outputDir> <shardDir>...} where every shard dir may contain
+ * {@code allure-results}, {@code surefire-reports}, {@code traces}, {@code ui-metrics},
+ * {@code api-metrics}, {@code logs}, {@code wait-history.json} and {@code flakiness.json}.
+ * Produces:
+ *  - {@code allure-results/}    – every shard's result, container and attachment files
+ *    (Allure names them by UUID, so they never clash; {@code allure generate} this dir)
+ *  - {@code surefire-reports/<shard>/} – each shard's reports untouched, which also makes
+ *    the output dir a valid {@code -Dschedule.history} for the next sharded run
+ *  - {@code junit-merged.xml}   – one {@code <testsuites>} document with totals, for CI
+ *  - {@code traces/}            – Playwright traces, prefixed with the shard name on clash
+ *  - {@code ui-metrics/<shard>/}, {@code api-metrics/<shard>/}, {@code logs/<shard>/} –
+ *    each shard's metrics exports and log, untouched
+ *  - {@code wait-history.json}  – the seed's samples plus every shard's new ones, per wait point
+ *  - {@code flakiness.json}     – per test (and browser, for UI tests), the entry of the shard that ran it
+ *
+ * Every shard starts from the same {@code --seed} histories (the previous merged output),
+ * so what a shard added is whatever follows the seed in its file.
+ *
+ * Needs the runtime classpath (Jackson) next to {@code target/classes} – see run-shards.sh.
+ */
+public class ShardMerger {
+
+    private static final List<String> FOLDERS = List.of("allure-results", "traces");
+
+    // Copied per shard, not merged: each shard's exports and log stay readable on their own
+    private static final List<String> PER_SHARD = List.of("surefire-reports", "ui-metrics", "api-metrics", "logs");
+
+    private static final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private ShardMerger() {}
+
+    public static void main(String[] args) throws Exception {
+        int first = 0;
+        Path seed = null;
+        if (args.length > 1 && args[0].equals("--seed")) {
+            seed = Paths.get(args[1]);
+            first = 2;
+        }
+        if (args.length - first < 2) {
+            throw new IllegalArgumentException("Usage: ShardMerger [--seed <dir>] <outputDir> <shardDir>...");
+        }
+        Path out = Paths.get(args[first]);
+        List<Path> shards = new ArrayList<>();
+        for (int i = first + 1; i < args.length; i++) {
+            shards.add(Paths.get(args[i]));
+        }
+
+        int copied = 0;
+        List<Path> junitFiles = new ArrayList<>();
+        for (Path shard : shards) {
+            if (!Files.isDirectory(shard)) {
+                System.out.println("Missing shard dir, skipped: " + shard);
+                continue;
+            }
+            String shardName = shard.getFileName().toString();
+            for (String folder : FOLDERS) {
+                copied += copyTree(shard.resolve(folder), out.resolve(folder), shardName);
+            }
+
+            for (String folder : PER_SHARD) {
+                copied += copyTree(shard.resolve(folder), out.resolve(folder).resolve(shardName), shardName);
+            }
+            Path reportsOut = out.resolve("surefire-reports").resolve(shardName);
+            try (Stream<Path> files = Files.list(reportsOut)) {
+                files.filter(f -> f.getFileName().toString().matches("TEST-.*\\.xml"))
+                        .sorted()
+                        .forEach(junitFiles::add);
+            } catch (IOException noReports) {
+                // shard ran nothing
+            }
+        }
+
+        int[] totals = mergeJunit(junitFiles, out.resolve("junit-merged.xml"));
+        mergeWaitHistory(seed, shards, out.resolve("wait-history.json"));
+        mergeFlakiness(shards, out.resolve("flakiness.json"));
+        System.out.printf("Merged %d shards into %s – %d files, %d tests, %d failures, %d errors, %d skipped%n",
+                shards.size(), out, copied, totals[0], totals[1], totals[2], totals[3]);
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────
+
+    private static int copyTree(Path from, Path to, String shardName) throws IOException {
+        if (!Files.isDirectory(from)) {
+            return 0;
+        }
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(from)) {
+            files = walk.filter(Files::isRegularFile).toList();
+        }
+        for (Path file : files) {
+            Path target = to.resolve(from.relativize(file).toString());
+            if (Files.exists(target)) {
+                // Same name from two shards (e.g. environment.properties, a trace of a
+                // class that ran in both) – keep both
+                target = target.resolveSibling(shardName + "-" + target.getFileName());
+            }
+            Files.createDirectories(target.getParent());
+            Files.copy(file, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return files.size();
+    }
+
+    /**
+     * Per wait point: the seed's samples, then what each shard appended after them, trimmed
+     * to the newest {@link AdaptiveTimeouts#WINDOW}.  A shard's own window may have dropped
+     * the oldest seed samples, so its additions start after the longest seed suffix it begins with.
+     */
+    private static void mergeWaitHistory(Path seedDir, List<Path> shards, Path target) throws IOException {
+        Map<String, List<Long>> seed = readHistory(seedDir == null ? null : seedDir.resolve("wait-history.json"));
+        Map<String, List<Long>> merged = new TreeMap<>();
+        seed.forEach((point, values) -> merged.put(point, new ArrayList<>(values)));
+        boolean any = false;
+        for (Path shard : shards) {
+            Path file = shard.resolve("wait-history.json");
+            if (!Files.isRegularFile(file)) continue;
+            any = true;
+            readHistory(file).forEach((point, values) -> {
+                List<Long> base = seed.getOrDefault(point, List.of());
+                int overlap = Math.min(base.size(), values.size());
+                while (overlap > 0 && !values.subList(0, overlap).equals(base.subList(base.size() - overlap, base.size()))) {
+                    overlap--;
+                }
+                merged.computeIfAbsent(point, p -> new ArrayList<>()).addAll(values.subList(overlap, values.size()));
+            });
+        }
+        if (!any) return;
+        merged.replaceAll((point, values) ->
+                new ArrayList<>(values.subList(Math.max(0, values.size() - AdaptiveTimeouts.WINDOW), values.size())));
+        Files.writeString(target, mapper.writeValueAsString(merged));
+    }
+
+    private static Map<String, List<Long>> readHistory(Path file) throws IOException {
+        Map<String, List<Long>> history = new TreeMap<>();
+        if (file == null || !Files.isRegularFile(file)) {
+            return history;
+        }
+        JsonNode root = mapper.readTree(file.toFile());
+        for (Iterator<Map.Entry<String, JsonNode>> it = root.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> e = it.next();
+            List<Long> values = new ArrayList<>();
+            e.getValue().forEach(v -> values.add(v.asLong()));
+            history.put(e.getKey(), values);
+        }
+        return history;
+    }
+
+    /**
+     * Shards run disjoint tests from the same seed ledger, so per key the entry with the most
+     * attempts is the one from the shard that ran it (attempts only ever grow).  UI keys carry
+     * the browser ({@code Class#method[browser]}), so matrix copies of one class that ran in
+     * different shards keep their own rows instead of one replacing the other.
+     */
+    private static void mergeFlakiness(List<Path> shards, Path target) throws IOException {
+        ObjectNode merged = mapper.createObjectNode();
+        boolean any = false;
+        for (Path shard : shards) {
+            Path file = shard.resolve("flakiness.json");
+            if (!Files.isRegularFile(file)) continue;
+            any = true;
+            JsonNode ledger = mapper.readTree(file.toFile());
+            for (Iterator<Map.Entry<String, JsonNode>> it = ledger.fields(); it.hasNext(); ) {
+                Map.Entry<String, JsonNode> e = it.next();
+                JsonNode current = merged.get(e.getKey());
+                if (current == null || e.getValue().path("attempts").asLong() > current.path("attempts").asLong()) {
+                    merged.set(e.getKey(), e.getValue());
+                }
+            }
+        }
+        if (any) {
+            Files.writeString(target, mapper.writeValueAsString(merged));
+        }
+    }
+
+    /** @return tests, failures, errors, skipped */
+    private static int[] mergeJunit(List<Path> files, Path target) throws Exception {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+        Document merged = factory.newDocumentBuilder().newDocument();
+        Element root = merged.createElement("testsuites");
+        merged.appendChild(root);
+
+        int[] totals = new int[4];
+        String[] counters = {"tests", "failures", "errors", "skipped"};
+        for (Path file : files) {
+            Document doc;
+            try {
+                doc = factory.newDocumentBuilder().parse(file.toFile());
+            } catch (Exception e) {
+                System.out.println("Unreadable junit report, skipped: " + file + " (" + e.getMessage() + ")");
+                continue;
+            }
+            NodeList suites = doc.getElementsByTagName("testsuite");
+            for (int i = 0; i < suites.getLength(); i++) {
+                Element suite = (Element) suites.item(i);
+                for (int c = 0; c < counters.length; c++) {
+                    totals[c] += parseInt(suite.getAttribute(counters[c]));
+                }
+                Node copy = merged.importNode(suite, true);
+                root.appendChild(copy);
+            }
+        }
+        for (int c = 0; c < counters.length; c++) {
+            root.setAttribute(counters[c], String.valueOf(totals[c]));
+        }
+
+        Files.createDirectories(target.toAbsolutePath().getParent());
+        Transformer transformer = TransformerFactory.newInstance().newTransformer();
+        transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+        transformer.transform(new DOMSource(merged), new StreamResult(target.toFile()));
+        return totals;
+    }
+
+    private static int parseInt(String s) {
+        try {
+            return Integer.parseInt(s.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
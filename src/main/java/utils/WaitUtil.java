@@ -1,8 +1,14 @@
 package utils;
 
+import java.util.List;
+import java.util.function.DoubleFunction;
+
 import com.microsoft.playwright.Locator;
 import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Response;
+import com.microsoft.playwright.TimeoutError;
 import com.microsoft.playwright.options.LoadState;
+import com.microsoft.playwright.options.WaitUntilState;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -14,6 +20,11 @@ import org.apache.logging.log4j.Logger;
  *    that defaults to LOAD, which fires before network activity settles.
  *    Added an overload for NETWORKIDLE which is safer for SPAs.
  *  - Added waitForVisible() and waitForText() convenience methods.
+ *  - Event-driven readiness: wait for the response / document that actually carries
+ *    the data, or for a DOM region to stop mutating, instead of network idle – analytics
+ *    beacons on TMDB keep the network from ever going idle for 500 ms.
+ *  - Named wait points get timeouts learned from earlier runs ({@link AdaptiveTimeouts});
+ *    timeouts are recorded too, not only successes.
  */
 public class WaitUtil {
 
@@ -32,7 +43,8 @@ public class WaitUtil {
 
     /**
      * Waits until there are no network connections for at least 500 ms.
-     * Recommended for React / Vue / Angular SPAs where JS fetches data after load.
+     * Prefer {@link #waitForResponse} or {@link #waitForDomSettled} – pages with beacons
+     * or long polling may never go idle.
      */
     public static void waitForNetworkIdle(Page page) {
         page.waitForLoadState(LoadState.NETWORKIDLE);
@@ -56,4 +68,97 @@ public class WaitUtil {
     public static void waitForVisible(Locator locator) {
         waitForVisible(locator, DEFAULT_TIMEOUT_MS);
     }
-}
\ No newline at end of file
+
+    /** Waits for the locator to become visible, within the wait point's adaptive timeout. */
+    public static void waitForVisible(Locator locator, String waitPoint) {
+        timed(waitPoint, timeout -> {
+            waitForVisible(locator, (int) timeout);
+            return null;
+        });
+    }
+
+    /**
+     * Runs {@code action} and waits until a response whose URL matches {@code urlGlob}
+     * (Playwright glob, e.g. {@code **}{@code /api/movies*}) has been fully received.
+     *
+     * @return the matched response
+     */
+    public static Response waitForResponse(Page page, String urlGlob, String waitPoint, Runnable action) {
+        Response response = timed(waitPoint, timeout -> {
+            Response r = page.waitForResponse(urlGlob, new Page.WaitForResponseOptions().setTimeout(timeout), action);
+            r.finished();   // body fully downloaded, not just the headers
+            return r;
+        });
+        log.debug("Response ready for {} ({} {})", waitPoint, response.status(), response.url());
+        return response;
+    }
+
+    /**
+     * Runs {@code action} and waits until the main frame has navigated to a URL matching
+     * {@code urlGlob} and its document is parsed (DOMContentLoaded) – images, ads and
+     * beacons are not waited for.
+     */
+    public static void waitForDocument(Page page, String urlGlob, String waitPoint, Runnable action) {
+        timed(waitPoint, timeout -> {
+            action.run();
+            page.waitForURL(urlGlob, new Page.WaitForURLOptions()
+                    .setWaitUntil(WaitUntilState.DOMCONTENTLOADED)
+                    .setTimeout(timeout));
+            return null;
+        });
+        log.debug("Document ready for {}: {}", waitPoint, page.url());
+    }
+
+    /**
+     * Waits until nothing inside {@code region} has changed (children, attributes, text)
+     * for {@code quietMs} – for lists that render in several passes.  Runs as one
+     * MutationObserver in the page, so there is no polling from the test side.
+     */
+    public static void waitForDomSettled(Locator region, int quietMs, String waitPoint) {
+        timed(waitPoint, timeout -> {
+            Object settled = region.evaluate(DOM_SETTLED_JS, List.of(quietMs, (long) timeout),
+                    new Locator.EvaluateOptions().setTimeout(timeout));
+            if (!Boolean.TRUE.equals(settled)) {
+                throw new TimeoutError("DOM of " + region + " still changing after " + (long) timeout + " ms");
+            }
+            return null;
+        });
+        log.debug("DOM settled for {}", waitPoint);
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────
+
+    private static final String DOM_SETTLED_JS = """
+            (el, [quietMs, timeoutMs]) => new Promise((resolve, reject) => {
+              let quiet;
+              const finish = settled => { observer.disconnect(); clearTimeout(quiet); clearTimeout(deadline); resolve(settled); };
+              const observer = new MutationObserver(() => {
+                clearTimeout(quiet);
+                quiet = setTimeout(() => finish(true), quietMs);
+              });
+              observer.observe(el, { childList: true, subtree: true, attributes: true, characterData: true });
+              quiet = setTimeout(() => finish(true), quietMs);
+              const deadline = setTimeout(() => finish(false), timeoutMs);
+            })""";
+
+    /**
+     * Runs {@code wait} with the point's adaptive timeout and records the outcome – the
+     * duration on success, a timeout sample on {@link TimeoutError} – so slow runs are
+     * remembered as well as fast ones.
+     */
+    private static <T> T timed(String waitPoint, DoubleFunction<T> wait) {
+        long start = System.nanoTime();
+        try {
+            T result = wait.apply(AdaptiveTimeouts.timeoutFor(waitPoint));
+            AdaptiveTimeouts.record(waitPoint, elapsedMillis(start));
+            return result;
+        } catch (TimeoutError e) {
+            AdaptiveTimeouts.recordTimeout(waitPoint);
+            throw e;
+        }
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
@@ -0,0 +1,49 @@
+package utils.logging;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.async.AsyncQueueFullPolicy;
+import org.apache.logging.log4j.core.async.EventRoute;
+import org.apache.logging.log4j.util.PropertiesUtil;
+
+/**
+ * What the Async appenders do when their queue is full: events at
+ * {@code log4j2.DiscardThreshold} (default INFO) or below are dropped, anything more
+ * severe waits for room.  Both outcomes are counted so overload shows up in the
+ * end-of-suite metrics instead of as a silently slower run.
+ *
+ * Selected with {@code log4j2.AsyncQueueFullPolicy=utils.logging.CountingQueueFullPolicy}
+ * (see log4j2.component.properties).
+ */
+public class CountingQueueFullPolicy implements AsyncQueueFullPolicy {
+
+    private static final LongAdder discarded = new LongAdder();
+    private static final LongAdder waited    = new LongAdder();
+
+    private final Level threshold = Level.toLevel(
+            PropertiesUtil.getProperties().getStringProperty("log4j2.DiscardThreshold", "INFO"), Level.INFO);
+
+    @Override
+    public EventRoute getRoute(long backgroundThreadId, Level level) {
+        if (Thread.currentThread().threadId() == backgroundThreadId) {
+            // Logging from the appender thread itself must never wait on its own queue
+            return EventRoute.SYNCHRONOUS;
+        }
+        if (level.isLessSpecificThan(threshold)) {
+            discarded.increment();
+            return EventRoute.DISCARD;
+        }
+        waited.increment();
+        return EventRoute.ENQUEUE;
+    }
+
+    public static long discarded() {
+        return discarded.sum();
+    }
+
+    /** Events that found the queue full and blocked the logging thread until there was room. */
+    public static long waited() {
+        return waited.sum();
+    }
+}
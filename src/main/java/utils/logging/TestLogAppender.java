@@ -0,0 +1,140 @@
+package utils.logging;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.Core;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.appender.AsyncAppender;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginElement;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+
+/**
+ * Log4j2 appender that keeps the log lines of the test running on the current thread.
+ *
+ * {@code TestListener} calls {@link #startCapture()} before a test method and
+ * {@link #stopCapture()} after it; in between every event logged on that thread is
+ * formatted and kept in a per-thread buffer of at most {@code maxLines} lines (oldest
+ * dropped first, and counted).  Each buffer belongs to one thread, so parallel tests
+ * never contend on it – the shared console/file output goes through Async appenders.
+ *
+ * <pre>{@code <TestLog name="TestLog" maxLines="2000"><PatternLayout .../></TestLog>}</pre>
+ */
+@Plugin(name = "TestLog", category = Core.CATEGORY_NAME, elementType = Appender.ELEMENT_TYPE, printObject = true)
+public final class TestLogAppender extends AbstractAppender {
+
+    private static final ThreadLocal<Buffer> current = new ThreadLocal<>();
+
+    private static final LongAdder captured     = new LongAdder();
+    private static final LongAdder droppedLines = new LongAdder();
+
+    // Set by the configured appender; capture is a no-op until log4j2.xml declares one
+    private static volatile int maxLines = 0;
+
+    private TestLogAppender(String name, Filter filter, Layout<String> layout, int maxLines) {
+        super(name, filter, layout, true, Property.EMPTY_ARRAY);
+        TestLogAppender.maxLines = maxLines;
+    }
+
+    @PluginFactory
+    public static TestLogAppender createAppender(@PluginAttribute("name") String name,
+                                                 @PluginAttribute(value = "maxLines", defaultInt = 2000) int maxLines,
+                                                 @PluginElement("Layout") Layout<String> layout,
+                                                 @PluginElement("Filter") Filter filter) {
+        if (name == null) {
+            throw new IllegalStateException("TestLog appender needs a name");
+        }
+        return new TestLogAppender(name, filter,
+                layout != null ? layout : PatternLayout.createDefaultLayout(), Math.max(1, maxLines));
+    }
+
+    @Override
+    public void append(LogEvent event) {
+        Buffer buffer = current.get();
+        if (buffer != null) {
+            buffer.add(new String(getLayout().toByteArray(event), StandardCharsets.UTF_8));
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────
+
+    /** Starts collecting the current thread's log lines (discarding any earlier ones). */
+    public static void startCapture() {
+        if (maxLines > 0) {
+            current.set(new Buffer(maxLines));
+            captured.increment();
+        }
+    }
+
+    /** Stops collecting and returns what the thread logged since {@link #startCapture()}, or null. */
+    public static String stopCapture() {
+        Buffer buffer = current.get();
+        current.remove();
+        return buffer == null ? null : buffer.text();
+    }
+
+    /** Per-test capture and async queue counters since JVM start. */
+    public static Stats stats() {
+        Map<String, Integer> queued = new TreeMap<>();
+        LoggerContext ctx = (LoggerContext) LogManager.getContext(false);
+        ctx.getConfiguration().getAppenders().forEach((name, appender) -> {
+            if (appender instanceof AsyncAppender async) {
+                queued.put(name, async.getQueueCapacity() - async.getQueueRemainingCapacity());
+            }
+        });
+        return new Stats(captured.sum(), droppedLines.sum(), CountingQueueFullPolicy.discarded(),
+                CountingQueueFullPolicy.waited(), queued);
+    }
+
+    /**
+     * @param droppedLines  lines pushed out of a full per-test buffer
+     * @param asyncDiscarded events dropped because an Async queue was full
+     * @param asyncWaited    events that blocked their thread on a full Async queue
+     * @param asyncQueued    events still waiting in each Async appender right now
+     */
+    public record Stats(long testsCaptured, long droppedLines, long asyncDiscarded, long asyncWaited,
+                        Map<String, Integer> asyncQueued) {}
+
+    private static final class Buffer {
+
+        private final Deque<String> lines = new ArrayDeque<>();
+        private final int           max;
+        private int                 dropped;
+
+        Buffer(int max) {
+            this.max = max;
+        }
+
+        void add(String line) {
+            if (lines.size() == max) {
+                lines.removeFirst();
+                dropped++;
+                droppedLines.increment();
+            }
+            lines.addLast(line);
+        }
+
+        String text() {
+            StringBuilder sb = new StringBuilder();
+            if (dropped > 0) {
+                sb.append("... ").append(dropped).append(" earlier lines dropped ...").append(System.lineSeparator());
+            }
+            lines.forEach(sb::append);
+            return sb.toString();
+        }
+    }
+}
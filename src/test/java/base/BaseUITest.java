@@ -1,15 +1,23 @@
 package base;
 
+import java.util.concurrent.TimeUnit;
+
 import config.ConfigReader;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.testng.ITestResult;
 import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Optional;
 import org.testng.annotations.Parameters;
 
 import com.microsoft.playwright.Page;
 import ui.core.PlaywrightFactory;
+import ui.core.TraceRecorder;
+import utils.RetryAnalyzer;
+import utils.ScreenshotWriter;
 
 /**
  * Base class for all UI tests.
@@ -20,15 +28,33 @@ import ui.core.PlaywrightFactory;
  *  - browserName param falls back to config.properties when not supplied by testng.xml,
  *    eliminating the hidden dependency on ConfigReader inside @BeforeClass.
  *  - Replaced System.out with Log4j.
- *  - tearDown() saves a Playwright trace on failure path (opt-in via system property).
+ *  - Playwright traces are kept per failing test (see TraceRecorder, driven by TestListener).
+ *  - Browsers come from a per-thread pool and stay warm for the whole suite; only the
+ *    BrowserContext is per class, or per method with {@code context.scope=method}.
+ *    Method scope suits tests that build their page objects inside the test method.
+ *  - Retries run on a fresh context from the same warm browser, restored to the URL and
+ *    storage the class started its tests from – no relaunch, no re-navigation.  Page
+ *    objects are rebuilt through {@link #bindPages(Page)}.
+ *  - With {@code browser.matrix} the same class runs once per browser type (see
+ *    BalancedSuiteListener); each result is labelled with its browser in Allure.
  */
-public abstract class BaseUITest {
+public abstract class BaseUITest implements RetryAnalyzer.RetryAware {
 
     private static final Logger log = LogManager.getLogger(BaseUITest.class);
 
     // Held here so subclass @BeforeClass methods can call getPage() safely
     private Page page;
 
+    // Resolved browser type of this instance – one instance per matrix browser
+    private String browserName;
+
+    // The class-level context serves the first method; later methods get a fresh one
+    private boolean freshContext;
+
+    // Where the class's tests start (after its @BeforeClass navigation); taken lazily
+    private PlaywrightFactory.StartState startState;
+    private boolean                      restoreBeforeNextMethod;
+
     @Parameters("browser")
     @BeforeClass(alwaysRun = true)
     public void setup(@Optional String browserName) {
@@ -39,15 +65,68 @@ public abstract class BaseUITest {
         }
         boolean headless = Boolean.parseBoolean(ConfigReader.get("headless"));
 
+        this.browserName = browserName;
         log.info("Setting up UI test – browser={}, headless={}", browserName, headless);
 
-        PlaywrightFactory.initBrowser(browserName, headless);
+        // One HAR per test class and browser when network.mode=record|replay – matrix
+        // engines record side by side instead of overwriting each other
+        PlaywrightFactory.initBrowser(browserName, headless, getClass().getSimpleName() + "_" + browserName);
         page = PlaywrightFactory.getPage();
         page.navigate(ConfigReader.get("baseUrl"));
+        freshContext = true;
 
         log.info("Navigated to base URL: {}", ConfigReader.get("baseUrl"));
     }
 
+    /** Gives each test method its own context when {@code context.scope=method}. */
+    @BeforeMethod(alwaysRun = true)
+    public void isolateMethod() {
+        if (page == null) {
+            return;   // setup skipped or failed – the test itself is skipped
+        }
+        if (restoreBeforeNextMethod) {
+            restoreBeforeNextMethod = false;
+            long start = System.currentTimeMillis();
+            PlaywrightFactory.restoreStartState(startState);
+            page = PlaywrightFactory.getPage();
+            bindPages(page);
+            log.info("Retry context ready in {} ms", System.currentTimeMillis() - start);
+            return;
+        }
+        if (startState == null && ConfigReader.resolveInt("retry.max", 1) > 0) {
+            startState = PlaywrightFactory.captureStartState();
+        }
+        if (!"method".equalsIgnoreCase(ConfigReader.resolve("context.scope", "class"))) {
+            return;
+        }
+        if (freshContext) {
+            freshContext = false;
+            return;
+        }
+        PlaywrightFactory.resetContext();
+        page = PlaywrightFactory.getPage();
+        page.navigate(ConfigReader.get("baseUrl"));
+    }
+
+    /** The failed attempt's context is replaced in the next @BeforeMethod. */
+    @Override
+    public void beforeRetry(ITestResult failed) {
+        restoreBeforeNextMethod = startState != null;
+    }
+
+    /**
+     * Rebuilds the subclass's page objects over {@code page} after a retry moved the test
+     * onto a fresh context that is already at the start URL.  Must not navigate.
+     * Classes without page-object fields can ignore it.
+     */
+    protected void bindPages(Page page) {
+    }
+
+    /** Browser type this instance runs on (from testng.xml, the matrix, or config). */
+    public String getBrowserName() {
+        return browserName;
+    }
+
     /**
      * Subclasses and the {@link listeners.TestListener} both call this to get
      * the current thread's page.
@@ -58,13 +137,17 @@ public abstract class BaseUITest {
 
     @AfterClass(alwaysRun = true)
     public void tearDown() {
-        // Optionally write the Playwright trace to disk – set -DsaveTrace=true on the CLI
-        String saveTrace = System.getProperty("saveTrace", "false");
-        String tracePath = Boolean.parseBoolean(saveTrace)
-                ? "target/traces/" + getClass().getSimpleName() + "-trace.zip"
-                : null;
-
-        log.info("Tearing down – trace output: {}", tracePath != null ? tracePath : "disabled");
-        PlaywrightFactory.tearDown(tracePath);
+        // Per-test trace chunks are already written (or discarded) by TestListener
+        log.info("Tearing down – trace mode: {}", TraceRecorder.mode());
+        PlaywrightFactory.tearDown();
+    }
+
+    /** Closes the pooled browsers and flushes screenshots once every class has finished (idempotent). */
+    @AfterSuite(alwaysRun = true)
+    public void shutdownBrowsers() {
+        PlaywrightFactory.shutdown();
+        // Screenshots are written in the background – make sure they are on disk before the report
+        ScreenshotWriter.flush(30, TimeUnit.SECONDS);
+        log.info("Screenshots – {}", ScreenshotWriter.stats());
     }
 }
\ No newline at end of file
@@ -0,0 +1,296 @@
+package listeners;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import base.BaseUITest;
+import config.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.IAlterSuiteListener;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+/**
+ * Replaces the hand-written {@code <test>} groupings in testng.xml with N balanced
+ * worker {@code <test>}s, run with {@code parallel="tests"}.
+ *
+ * Every class is packed longest-first onto the currently lightest worker, using the
+ * durations recorded by earlier runs ({@link DurationHistory}).  With a fixed grouping
+ * the slowest group sets the wall clock; with LPT packing the workers finish within
+ * one class of each other.  Parameters of the original {@code <test>} (e.g. the browser)
+ * travel with each class, so one class may appear several times with different
+ * parameters – two copies never share a worker.
+ *
+ * Config (system property first, then config.properties):
+ *  - {@code schedule.balance}  – on by default; false keeps testng.xml as written
+ *  - {@code schedule.workers}  – worker count, defaults to the available cores
+ *  - {@code schedule.history}  – comma-separated report dirs, default target/surefire-reports;
+ *    point it at a copy kept between CI runs since {@code mvn clean} wipes target/
+ *
+ * Sharding across machines (or local JVMs): {@code -Dshard.total=N -Dshard.index=K}
+ * (K = 1..N) keeps only shard K's classes before the workers are planned.  Shards are
+ * packed the same way, so every node computes the same split – give all nodes the
+ * same history.  Works with {@code schedule.balance=false} too.
+ *
+ * Browser matrix: {@code -Dbrowser.matrix=chromium,firefox,webkit} runs every UI class
+ * (a {@link BaseUITest}) once per listed browser in the same JVM.  Each browser gets its
+ * own pool of {@code matrix.workersPerBrowser} workers (default: workers / browsers, at
+ * least 1) named {@code <browser>-worker-N}, so engines run side by side and the matrix
+ * takes about as long as the slowest one.  Non-UI classes keep the plain worker pool.
+ *
+ * {@code <test>}s using packages or group filters are left untouched (and unsharded).
+ */
+public class BalancedSuiteListener implements IAlterSuiteListener {
+
+    private static final Logger log = LogManager.getLogger(BalancedSuiteListener.class);
+
+    /**
+     * One schedulable unit: a class, carrying the parameters of the {@code <test>}
+     * ({@code origin}) it came from.
+     */
+    public record Unit(XmlClass xmlClass, String origin, long millis) {
+
+        public String name() {
+            String params = xmlClass.getLocalParameters().isEmpty() ? "" : xmlClass.getLocalParameters().toString();
+            return xmlClass.getName() + params;
+        }
+    }
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        int shardTotal = ConfigReader.resolveInt("shard.total", 1);
+        int shardIndex = ConfigReader.resolveInt("shard.index", 1);
+        boolean balance = ConfigReader.resolveBoolean("schedule.balance", true);
+        List<String> matrix = matrixBrowsers();
+        if (shardTotal < 1 || shardIndex < 1 || shardIndex > shardTotal) {
+            throw new IllegalStateException(
+                    "shard.index must be in 1.." + shardTotal + " but was " + shardIndex);
+        }
+        if (!balance && shardTotal == 1 && matrix.isEmpty()) {
+            log.info("Suite balancing disabled (schedule.balance=false) – running testng.xml as written");
+            return;
+        }
+        DurationHistory history = DurationHistory.load(historyDirs());
+
+        for (XmlSuite suite : suites) {
+            if (shardTotal > 1) {
+                keepShard(suite, history, shardIndex, shardTotal);
+            }
+        }
+        if (!balance && matrix.isEmpty()) {
+            return;
+        }
+
+        int workers = Math.max(1, ConfigReader.resolveInt("schedule.workers",
+                Runtime.getRuntime().availableProcessors()));
+        int perBrowser = matrix.isEmpty() ? 0 : Math.max(1, ConfigReader.resolveInt("matrix.workersPerBrowser",
+                workers / matrix.size()));
+        for (XmlSuite suite : suites) {
+            List<Unit> units = takeUnits(suite, history);
+            if (units.isEmpty()) {
+                continue;
+            }
+            // pool name → its units; without a matrix everything shares "worker"
+            Map<String, List<Unit>> pools = matrix.isEmpty() ? Map.of("worker", units) : matrixPools(units, matrix);
+            pools.forEach((pool, poolUnits) -> {
+                List<List<Unit>> plan = pack(poolUnits, "worker".equals(pool) ? workers : perBrowser, true);
+                plan.removeIf(List::isEmpty);
+                addWorkers(suite, pool, plan);
+                logPlan(suite, pool, plan);
+            });
+            suite.setParallel(XmlSuite.ParallelMode.TESTS);
+            suite.setThreadCount(suite.getTests().size());
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────
+
+    /** Report directories the duration history is read from. */
+    public static List<Path> historyDirs() {
+        return Arrays.stream(ConfigReader.resolve("schedule.history", "target/surefire-reports").split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .map(Paths::get)
+                .toList();
+    }
+
+    /**
+     * The classes of every balanceable {@code <test>}, with the test's parameters folded
+     * into each class.  The suite itself is not changed.
+     */
+    public static List<Unit> units(XmlSuite suite, DurationHistory history) {
+        List<Unit> units = new ArrayList<>();
+        for (XmlTest test : suite.getTests()) {
+            if (!balanceable(test)) {
+                continue;
+            }
+            for (XmlClass cls : test.getXmlClasses()) {
+                XmlClass copy = (XmlClass) cls.clone();
+                Map<String, String> params = new HashMap<>(test.getLocalParameters());
+                params.putAll(cls.getLocalParameters());
+                copy.setParameters(params);
+
+                List<String> included = cls.getIncludedMethods().stream().map(XmlInclude::getName).toList();
+                units.add(new Unit(copy, test.getName(), history.classMillis(cls.getName(), included)));
+            }
+        }
+        return units;
+    }
+
+    /** Like {@link #units} but also removes the balanceable {@code <test>}s from the suite. */
+    public static List<Unit> takeUnits(XmlSuite suite, DurationHistory history) {
+        List<Unit> units = units(suite, history);
+        suite.getTests().removeIf(BalancedSuiteListener::balanceable);
+        return units;
+    }
+
+    /** Drops every class that belongs to another shard, and {@code <test>}s left empty. */
+    public static void keepShard(XmlSuite suite, DurationHistory history, int index, int total) {
+        List<Unit> mine = pack(units(suite, history), total, false).get(index - 1);
+        Set<String> keep = new HashSet<>();
+        mine.forEach(u -> keep.add(u.origin() + "#" + u.xmlClass().getName()));
+
+        for (XmlTest test : suite.getTests()) {
+            if (balanceable(test)) {
+                test.setXmlClasses(test.getXmlClasses().stream()
+                        .filter(c -> keep.contains(test.getName() + "#" + c.getName()))
+                        .collect(Collectors.toCollection(ArrayList::new)));
+            }
+        }
+        suite.getTests().removeIf(t -> t.getXmlPackages().isEmpty() && t.getXmlClasses().isEmpty());
+        log.info("Shard {}/{} of suite '{}' ~{} ms: {}", index, total, suite.getName(), totalMillis(mine),
+                mine.stream().map(Unit::name).collect(Collectors.joining(", ")));
+    }
+
+    /** Browsers listed in {@code browser.matrix}, empty when matrix mode is off. */
+    public static List<String> matrixBrowsers() {
+        return Arrays.stream(ConfigReader.resolve("browser.matrix", "").split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    /**
+     * One copy of every UI class per browser (its {@code browser} parameter overridden),
+     * grouped by browser; other classes go to the {@code "worker"} pool unchanged.
+     */
+    static Map<String, List<Unit>> matrixPools(List<Unit> units, List<String> browsers) {
+        Map<String, List<Unit>> pools = new LinkedHashMap<>();
+        Set<String> seen = new HashSet<>();
+        for (Unit unit : units) {
+            if (!isUiClass(unit.xmlClass().getName())) {
+                pools.computeIfAbsent("worker", p -> new ArrayList<>()).add(unit);
+                continue;
+            }
+            for (String browser : browsers) {
+                if (!seen.add(browser + "#" + unit.xmlClass().getName())) {
+                    continue;   // testng.xml already listed this class for another browser
+                }
+                XmlClass copy = (XmlClass) unit.xmlClass().clone();
+                Map<String, String> params = new HashMap<>(unit.xmlClass().getLocalParameters());
+                params.put("browser", browser);
+                copy.setParameters(params);
+                pools.computeIfAbsent(browser, p -> new ArrayList<>()).add(new Unit(copy, unit.origin(), unit.millis()));
+            }
+        }
+        return pools;
+    }
+
+    private static boolean isUiClass(String className) {
+        try {
+            return BaseUITest.class.isAssignableFrom(
+                    Class.forName(className, false, BalancedSuiteListener.class.getClassLoader()));
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    private static boolean balanceable(XmlTest test) {
+        return test.getXmlPackages().isEmpty() && !test.getXmlClasses().isEmpty()
+                && test.getIncludedGroups().isEmpty() && test.getExcludedGroups().isEmpty();
+    }
+
+    /**
+     * Longest-processing-time-first bin packing: sort by expected duration descending and
+     * put each unit on the lightest bin.  With {@code oneCopyPerBin} a bin never holds the
+     * same class twice (TestNG runs a class only once per {@code <test>}).  Ties break on
+     * name and bin order so the plan is deterministic – every shard of a sharded run
+     * computes the same one.  Bins may come back empty.
+     */
+    public static List<List<Unit>> pack(List<Unit> units, int bins, boolean oneCopyPerBin) {
+        List<List<Unit>> plan = new ArrayList<>();
+        long[] load = new long[bins];
+        for (int i = 0; i < bins; i++) {
+            plan.add(new ArrayList<>());
+        }
+
+        List<Unit> sorted = new ArrayList<>(units);
+        sorted.sort(Comparator.comparingLong(Unit::millis).reversed().thenComparing(Unit::name));
+        for (Unit unit : sorted) {
+            int best = -1;
+            for (int b = 0; b < plan.size(); b++) {
+                boolean holdsClass = oneCopyPerBin && plan.get(b).stream()
+                        .anyMatch(u -> u.xmlClass().getName().equals(unit.xmlClass().getName()));
+                if (!holdsClass && (best < 0 || load[b] < load[best])) {
+                    best = b;
+                }
+            }
+            if (best < 0) {
+                // More copies of one class than bins – open an extra bin for it
+                plan.add(new ArrayList<>());
+                load = Arrays.copyOf(load, load.length + 1);
+                best = plan.size() - 1;
+            }
+            plan.get(best).add(unit);
+            load[best] += unit.millis();
+        }
+        return plan;
+    }
+
+    public static long totalMillis(List<Unit> bin) {
+        return bin.stream().mapToLong(Unit::millis).sum();
+    }
+
+    private static void addWorkers(XmlSuite suite, String pool, List<List<Unit>> plan) {
+        for (int i = 0; i < plan.size(); i++) {
+            XmlTest worker = new XmlTest(suite);
+            worker.setName(workerName(pool, i));
+            List<XmlClass> classes = new ArrayList<>();
+            for (Unit unit : plan.get(i)) {
+                unit.xmlClass().setXmlTest(worker);
+                classes.add(unit.xmlClass());
+            }
+            worker.setXmlClasses(classes);
+        }
+    }
+
+    /** worker-1, worker-2… or, per matrix browser, firefox-worker-1… */
+    private static String workerName(String pool, int index) {
+        return ("worker".equals(pool) ? "worker-" : pool + "-worker-") + (index + 1);
+    }
+
+    private static void logPlan(XmlSuite suite, String pool, List<List<Unit>> plan) {
+        long sum = plan.stream().mapToLong(BalancedSuiteListener::totalMillis).sum();
+        long makespan = plan.stream().mapToLong(BalancedSuiteListener::totalMillis).max().orElse(0);
+        log.info("Suite '{}' pool '{}' balanced onto {} workers – estimated wall clock {} ms (serial {} ms)",
+                suite.getName(), pool, plan.size(), makespan, sum);
+        for (int i = 0; i < plan.size(); i++) {
+            log.info("  {} ~{} ms: {}", workerName(pool, i), totalMillis(plan.get(i)),
+                    plan.get(i).stream().map(Unit::name).collect(Collectors.joining(", ")));
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package listeners;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+/**
+ * Per-class / per-method durations from earlier runs, read from TestNG's
+ * {@code testng-results.xml} and surefire's {@code TEST-*.xml} reports.
+ *
+ * testng-results.xml is preferred because it also times configuration methods –
+ * for UI classes the {@code @BeforeClass} browser/context setup is a large part of
+ * the cost.  Surefire XML only fills in classes testng-results.xml does not know.
+ * Within one run of a class, repeated invocations of a method – {@code @BeforeMethod}
+ * once per test, data-provider rows, retries – are summed; that run's total is one
+ * sample, and samples from several reports (or several {@code <test>}s) are averaged.
+ * Classes with no history are estimated at the median of the known classes.
+ */
+public final class DurationHistory {
+
+    private static final Logger log = LogManager.getLogger(DurationHistory.class);
+
+    private static final long NO_HISTORY_MILLIS = 1_000;
+
+    /** class → method → [total ms, samples]; one sample per run of the class */
+    private final Map<String, Map<String, long[]>> durations = new HashMap<>();
+    private long unknownClassMillis = NO_HISTORY_MILLIS;
+
+    private DurationHistory() {}
+
+    /** Reads every report found (recursively) under the given directories; missing ones are ignored. */
+    public static DurationHistory load(Collection<Path> dirs) {
+        DurationHistory testng   = new DurationHistory();
+        DurationHistory surefire = new DurationHistory();
+        for (Path dir : dirs) {
+            if (!Files.isDirectory(dir)) {
+                continue;
+            }
+            try (Stream<Path> files = Files.walk(dir)) {
+                files.filter(Files::isRegularFile).forEach(f -> {
+                    String name = f.getFileName().toString();
+                    if (name.equals("testng-results.xml")) {
+                        testng.readTestNg(f);
+                    } else if (name.startsWith("TEST-") && name.endsWith(".xml")) {
+                        surefire.readSurefire(f);
+                    }
+                });
+            } catch (IOException e) {
+                log.warn("Could not scan duration history in {}: {}", dir, e.getMessage());
+            }
+        }
+        surefire.durations.forEach(testng.durations::putIfAbsent);
+        testng.unknownClassMillis = testng.medianClassMillis();
+        log.info("Duration history: {} classes from {}", testng.durations.size(), dirs);
+        return testng;
+    }
+
+    public boolean knows(String className) {
+        return durations.containsKey(className);
+    }
+
+    /** Expected time for the whole class (all recorded methods, configuration included). */
+    public long classMillis(String className) {
+        Map<String, long[]> methods = durations.get(className);
+        if (methods == null) {
+            return unknownClassMillis;
+        }
+        return methods.values().stream().mapToLong(DurationHistory::average).sum();
+    }
+
+    /**
+     * Expected time when only {@code includedMethods} run: those methods plus the
+     * class's configuration methods.  An empty list means the whole class.
+     */
+    public long classMillis(String className, Collection<String> includedMethods) {
+        Map<String, long[]> methods = durations.get(className);
+        if (methods == null || includedMethods.isEmpty()) {
+            return classMillis(className);
+        }
+        long total = 0;
+        for (Map.Entry<String, long[]> e : methods.entrySet()) {
+            boolean config = e.getKey().startsWith("@");
+            if (config || includedMethods.contains(e.getKey())) {
+                total += average(e.getValue());
+            }
+        }
+        return total;
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────
+
+    private void readTestNg(Path file) {
+        Document doc = parse(file);
+        if (doc == null) {
+            return;
+        }
+        // A <class> element is one run of the class within one <test>
+        NodeList classes = doc.getElementsByTagName("class");
+        for (int i = 0; i < classes.getLength(); i++) {
+            Element cls = (Element) classes.item(i);
+            Map<String, Long> run = new HashMap<>();
+            NodeList methods = cls.getElementsByTagName("test-method");
+            for (int m = 0; m < methods.getLength(); m++) {
+                Element method = (Element) methods.item(m);
+                // Configuration methods are keyed "@name" so method filters never drop them
+                String key = ("true".equals(method.getAttribute("is-config")) ? "@" : "")
+                        + method.getAttribute("name");
+                addToRun(run, key, parseLong(method.getAttribute("duration-ms")));
+            }
+            run.forEach((method, millis) -> record(cls.getAttribute("name"), method, millis));
+        }
+    }
+
+    private void readSurefire(Path file) {
+        Document doc = parse(file);
+        if (doc == null) {
+            return;
+        }
+        // class → method → summed ms in this report
+        Map<String, Map<String, Long>> runs = new HashMap<>();
+        NodeList cases = doc.getElementsByTagName("testcase");
+        for (int i = 0; i < cases.getLength(); i++) {
+            Element tc = (Element) cases.item(i);
+            double seconds = parseDouble(tc.getAttribute("time"));
+            addToRun(runs.computeIfAbsent(tc.getAttribute("classname"), c -> new HashMap<>()),
+                    tc.getAttribute("name"), seconds < 0 ? -1 : Math.round(seconds * 1000));
+        }
+        runs.forEach((cls, run) -> run.forEach((method, millis) -> record(cls, method, millis)));
+    }
+
+    /** Sums repeated invocations of {@code method} within one run; unparseable durations are dropped. */
+    private static void addToRun(Map<String, Long> run, String method, long millis) {
+        if (millis >= 0) {
+            run.merge(method, millis, Long::sum);
+        }
+    }
+
+    private void record(String className, String method, long millis) {
+        if (className.isEmpty() || millis < 0) {
+            return;
+        }
+        long[] acc = durations.computeIfAbsent(className, c -> new HashMap<>())
+                .computeIfAbsent(method, m -> new long[2]);
+        acc[0] += millis;
+        acc[1]++;
+    }
+
+    private long medianClassMillis() {
+        List<Long> totals = new ArrayList<>();
+        durations.keySet().forEach(c -> totals.add(classMillis(c)));
+        if (totals.isEmpty()) {
+            return NO_HISTORY_MILLIS;
+        }
+        totals.sort(null);
+        return Math.max(1, totals.get(totals.size() / 2));
+    }
+
+    private static long average(long[] acc) {
+        return acc[1] == 0 ? 0 : acc[0] / acc[1];
+    }
+
+    /** null when the file is not readable XML (e.g. a report cut short by a killed JVM) */
+    private static Document parse(Path file) {
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            // Reports are local files, but never resolve a DTD over the network
+            factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+            DocumentBuilder builder = factory.newDocumentBuilder();
+            return builder.parse(file.toFile());
+        } catch (Exception e) {
+            log.warn("Skipping unreadable report {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    private static long parseLong(String s) {
+        try {
+            return Long.parseLong(s.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static double parseDouble(String s) {
+        try {
+            return Double.parseDouble(s.trim().replace(",", ""));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package listeners;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Outcome history per test method across runs, kept as JSON.
+ *
+ * Each run of a test ends as one of {@link Outcome}; the last {@code window} outcomes
+ * are kept together with run-wide attempt and retry-time totals.  A test is flaky when
+ * it failed an attempt in runs where it also passed at least once – a test that failed
+ * every recent run is broken, not flaky, and is never quarantined.
+ */
+public final class FlakinessLedger {
+
+    private static final Logger log = LogManager.getLogger(FlakinessLedger.class);
+
+    private static final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    public enum Outcome {
+        /** passed on the first attempt */
+        PASSED,
+        /** failed, then passed on a retry */
+        FLAKY,
+        /** failed every attempt */
+        FAILED
+    }
+
+    /** One test's record; public fields so Jackson can map it without annotations. */
+    public static final class Entry {
+        public List<Outcome> recent      = new ArrayList<>();
+        public long          attempts;
+        public long          retries;
+        public long          retryMillis;
+    }
+
+    private final Map<String, Entry> entries;
+    private final int                window;
+
+    private FlakinessLedger(Map<String, Entry> entries, int window) {
+        this.entries = entries;
+        this.window  = window;
+    }
+
+    /** Reads {@code file}; a missing or unreadable file starts an empty ledger. */
+    public static FlakinessLedger load(Path file, int window) {
+        Map<String, Entry> entries = new TreeMap<>();
+        if (Files.isRegularFile(file)) {
+            try {
+                entries.putAll(mapper.readValue(file.toFile(), new TypeReference<Map<String, Entry>>() {}));
+            } catch (IOException e) {
+                log.warn("Ignoring unreadable flakiness ledger {}: {}", file, e.getMessage());
+            }
+        }
+        return new FlakinessLedger(entries, Math.max(1, window));
+    }
+
+    /**
+     * Records one finished run of {@code test}.
+     *
+     * @param attempts     invocations it took (1 = no retry)
+     * @param retryMillis  time spent in the attempts after the first
+     */
+    public synchronized void record(String test, Outcome outcome, int attempts, long retryMillis) {
+        Entry e = entries.computeIfAbsent(test, t -> new Entry());
+        e.recent.add(outcome);
+        while (e.recent.size() > window) {
+            e.recent.remove(0);
+        }
+        e.attempts    += attempts;
+        e.retries     += attempts - 1;
+        e.retryMillis += retryMillis;
+    }
+
+    /** Share of recent runs with a failed attempt, 0 when the test never passed in the window. */
+    public synchronized double flakiness(String test) {
+        Entry e = entries.get(test);
+        if (e == null || e.recent.isEmpty() || !e.recent.contains(Outcome.PASSED) && !e.recent.contains(Outcome.FLAKY)) {
+            return 0;
+        }
+        long unstable = e.recent.stream().filter(o -> o != Outcome.PASSED).count();
+        return (double) unstable / e.recent.size();
+    }
+
+    public synchronized int runs(String test) {
+        Entry e = entries.get(test);
+        return e == null ? 0 : e.recent.size();
+    }
+
+    /** Total retry time recorded across all tests, in ms. */
+    public synchronized long totalRetryMillis() {
+        return entries.values().stream().mapToLong(e -> e.retryMillis).sum();
+    }
+
+    public synchronized void save(Path file) {
+        try {
+            if (file.toAbsolutePath().getParent() != null) {
+                Files.createDirectories(file.toAbsolutePath().getParent());
+            }
+            Files.writeString(file, mapper.writeValueAsString(entries));
+            log.info("Flakiness ledger for {} tests saved to {}", entries.size(), file);
+        } catch (IOException e) {
+            log.warn("Could not save flakiness ledger to {}: {}", file, e.getMessage());
+        }
+    }
+}
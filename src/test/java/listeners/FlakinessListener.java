@@ -0,0 +1,162 @@
+package listeners;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import base.BaseUITest;
+import config.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.IAnnotationTransformer;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import org.testng.SkipException;
+import org.testng.annotations.ITestAnnotation;
+import org.testng.internal.annotations.DisabledRetryAnalyzer;
+import utils.RetryAnalyzer;
+
+/**
+ * Retries, flakiness tracking and quarantine for every @Test.
+ *
+ *  - Attaches {@link RetryAnalyzer} to each test that does not name its own analyzer
+ *    ({@link RetryAnalyzer.Never} opts a test out).
+ *  - Records each test run's outcome, attempts and retry time in a {@link FlakinessLedger}
+ *    ({@code retry.ledger.file}, default target/flakiness.json) that carries over between runs.
+ *    UI tests are keyed per browser ({@code Class#method[browser]}), so matrix engines
+ *    running the same method at the same time keep separate attempts and ledger rows.
+ *  - Tests whose flakiness over the last {@code retry.ledger.window} runs is at least
+ *    {@code retry.quarantine.threshold} (and that have {@code retry.quarantine.minRuns}
+ *    runs) are quarantined – on the engine they are flaky on only: they still run – so
+ *    they can earn their way back – but are not retried, and a failure is reported as a
+ *    skip (marked with the {@value #QUARANTINED} attribute) instead of failing the build.
+ *    {@code -Dretry.quarantine.enabled=false} turns this off.
+ */
+public class FlakinessListener implements IAnnotationTransformer, IInvokedMethodListener,
+        ITestListener, ISuiteListener {
+
+    private static final Logger log = LogManager.getLogger(FlakinessListener.class);
+
+    public static final String QUARANTINED = RetryAnalyzer.QUARANTINED;
+
+    // Registered once, through META-INF/services, so one instance owns the run's state
+    private final FlakinessLedger ledger =
+            FlakinessLedger.load(ledgerFile(), ConfigReader.resolveInt("retry.ledger.window", 20));
+
+    // test key → attempts so far in this run
+    private final Map<String, Attempts> inProgress = new ConcurrentHashMap<>();
+
+    // TestNG 7 declares these parameters raw – Class<?> / Constructor<?> would not override
+    @Override
+    @SuppressWarnings("rawtypes")
+    public void transform(ITestAnnotation annotation, Class testClass, Constructor testConstructor, Method testMethod) {
+        // The annotation is shared by every engine, so quarantine is decided per result, not here
+        if (annotation.getRetryAnalyzerClass() == null
+                || annotation.getRetryAnalyzerClass() == DisabledRetryAnalyzer.class) {
+            annotation.setRetryAnalyzer(RetryAnalyzer.class);
+        }
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult result) {
+        if (method.isTestMethod() && result.getStatus() == ITestResult.FAILURE
+                && isQuarantined(key(result))) {
+            String key = key(result);
+            log.warn("Quarantined {} failed – flaky in {}% of its last {} runs, reported as skipped", key,
+                    Math.round(ledger.flakiness(key) * 100), ledger.runs(key));
+            Throwable cause = result.getThrowable();
+            result.setStatus(ITestResult.SKIP);
+            result.setAttribute(QUARANTINED, true);   // RetryAnalyzer does not retry it
+            result.setThrowable(new SkipException("Quarantined flaky test failed: "
+                    + (cause == null ? "no message" : cause.getMessage())));
+        }
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        Attempts a = attempt(result);
+        finish(result, a.count > 1 ? FlakinessLedger.Outcome.FLAKY : FlakinessLedger.Outcome.PASSED);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        attempt(result);
+        finish(result, FlakinessLedger.Outcome.FAILED);
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        if (result.wasRetried()) {
+            attempt(result);   // failed attempt that will run again
+        } else if (result.getAttribute(QUARANTINED) != null) {
+            attempt(result);
+            finish(result, FlakinessLedger.Outcome.FAILED);
+        } else {
+            inProgress.remove(key(result));   // skipped for other reasons – not a run
+        }
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        ledger.save(ledgerFile());
+        log.info("Retries – {} ms spent in retried attempts across recorded runs", ledger.totalRetryMillis());
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────
+
+    private boolean isQuarantined(String key) {
+        return ConfigReader.resolveBoolean("retry.quarantine.enabled", true)
+                && ledger.runs(key) >= ConfigReader.resolveInt("retry.quarantine.minRuns", 5)
+                && ledger.flakiness(key) >= Double.parseDouble(ConfigReader.resolve("retry.quarantine.threshold", "0.3"));
+    }
+
+    private Attempts attempt(ITestResult result) {
+        Attempts a = inProgress.computeIfAbsent(key(result), k -> new Attempts());
+        a.count++;
+        if (a.count > 1) {
+            a.retryMillis += result.getEndMillis() - result.getStartMillis();
+        }
+        return a;
+    }
+
+    private void finish(ITestResult result, FlakinessLedger.Outcome outcome) {
+        Attempts a = inProgress.remove(key(result));
+        if (a != null) {
+            ledger.record(key(result), outcome, a.count, a.retryMillis);
+            if (a.count > 1) {
+                log.info("{} {} after {} attempts ({} ms in retries)", key(result), outcome, a.count, a.retryMillis);
+            }
+        }
+    }
+
+    /** {@code Class#method}, plus {@code [browser]} for UI tests – one ledger row per engine. */
+    private static String key(ITestResult result) {
+        Method method = result.getMethod().getConstructorOrMethod().getMethod();
+        String key = method.getDeclaringClass().getName() + "#" + method.getName();
+        if (result.getInstance() instanceof BaseUITest ui) {
+            // Null when setup never ran – the <test>'s browser parameter is what it was given
+            String browser = ui.getBrowserName() != null ? ui.getBrowserName()
+                    : result.getTestContext().getCurrentXmlTest().getParameter("browser");
+            if (browser != null) {
+                key += "[" + browser.toLowerCase() + "]";
+            }
+        }
+        return key;
+    }
+
+    private static Path ledgerFile() {
+        return Paths.get(ConfigReader.resolve("retry.ledger.file", "target/flakiness.json"));
+    }
+
+    private static final class Attempts {
+        int  count;
+        long retryMillis;
+    }
+}
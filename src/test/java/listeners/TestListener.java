@@ -1,27 +1,130 @@
 package listeners;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
+import api.metrics.HttpMetrics;
 import base.BaseUITest;
+import com.microsoft.playwright.BrowserContext;
 import com.microsoft.playwright.Page;
+import config.ConfigReader;
 import io.qameta.allure.Allure;
+import io.qameta.allure.model.Label;
+import io.qameta.allure.model.Parameter;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.ThreadContext;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
 import org.testng.ITestListener;
 import org.testng.ITestResult;
+import ui.core.ActionMetrics;
+import ui.core.BrowserPool;
+import ui.core.PlaywrightFactory;
+import ui.core.TraceRecorder;
+import ui.pages.SelectorCheck;
 import utils.ScreenshotUtil;
+import utils.logging.TestLogAppender;
 
 /**
  * TestNG listener that captures a screenshot on test failure and attaches it
- * to the Allure report.
+ * to the Allure report, and cuts the Playwright trace into one chunk per test.
  *
  * Key improvements vs original:
  *  - Safer cast: checks instanceof before casting to avoid ClassCastException
  *    if the listener is ever registered on a non-UI test class.
  *  - Logs pass/skip/fail events for better traceability in CI logs.
+ *  - Per-test trace chunks: started before each test method runs, written to disk
+ *    only if it failed.  Done in the invocation hooks, while Allure still has the
+ *    test open, so the trace lands on the right test.
+ *  - Per-test logs: the test name goes into the log4j ThreadContext ({@code %X{test}})
+ *    and the test's own lines are buffered by {@link TestLogAppender}; only failed
+ *    (and so retried) tests get them attached to Allure.
+ *  - Every UI test gets its slowest driver actions attached (see ActionMetrics), and
+ *    every API test the timings and sizes of its HTTP calls (see HttpMetrics).
+ *  - UI results carry a "browser" label and parameter in Allure (matrix runs).
+ *  - In strict HAR replay a request missing from the recording fails the test.
+ *  - UI suites start by checking the Selector registry against local fixture pages and
+ *    end by writing what each selector cost to resolve ({@code selectors.json}).
  */
-public class TestListener implements ITestListener {
+public class TestListener implements ITestListener, IInvokedMethodListener, ISuiteListener {
 
     private static final Logger log = LogManager.getLogger(TestListener.class);
 
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult result) {
+        if (method.isTestMethod()) {
+            tagBrowser(result);
+            ThreadContext.put("test", formatName(result));
+            TestLogAppender.startCapture();
+            ActionMetrics.beginTest();
+            HttpMetrics.beginTest();
+            TraceRecorder.beginTest(formatName(result));
+        }
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult result) {
+        if (method.isTestMethod()) {
+            failOnReplayMisses(result);
+            boolean failed = result.getStatus() == ITestResult.FAILURE;
+            TraceRecorder.endTest(failed);
+
+            List<ActionMetrics.Step> slowest = ActionMetrics.endTest(ConfigReader.resolveInt("ui.metrics.slowestSteps", 10));
+            if (!slowest.isEmpty()) {
+                Allure.addAttachment("Slowest UI actions", "text/plain",
+                        slowest.stream().map(ActionMetrics.Step::toString).collect(Collectors.joining("\n")), "txt");
+            }
+
+            List<HttpMetrics.Call> calls = HttpMetrics.endTest();
+            if (!calls.isEmpty()) {
+                Allure.addAttachment("HTTP calls", "text/plain",
+                        calls.stream().map(HttpMetrics.Call::toString).collect(Collectors.joining("\n")), "txt");
+            }
+
+            String testLog = TestLogAppender.stopCapture();
+            if (failed && testLog != null) {
+                Allure.addAttachment("Test log", "text/plain", testLog, "log");
+            }
+            ThreadContext.remove("test");
+        }
+    }
+
+    /**
+     * Fails the run up front if a registered selector no longer matches its fixture page –
+     * on every {@code browser.matrix} engine, or on the configured {@code browser} otherwise.
+     */
+    @Override
+    public void onStart(ISuite suite) {
+        boolean hasUiTests = suite.getAllMethods().stream()
+                .anyMatch(m -> BaseUITest.class.isAssignableFrom(m.getRealClass()));
+        if (!hasUiTests || !ConfigReader.resolveBoolean("selectors.validate", true)) {
+            return;
+        }
+        List<String> browsers = BalancedSuiteListener.matrixBrowsers();
+        try {
+            for (String browser : browsers.isEmpty() ? List.of(ConfigReader.get("browser")) : browsers) {
+                log.info("Validating selectors on {}", browser);
+                BrowserContext context = BrowserPool.acquire(browser, true).newContext();
+                try {
+                    SelectorCheck.validate(context);
+                } finally {
+                    context.close();
+                }
+            }
+        } finally {
+            BrowserPool.releaseCurrentThread();
+        }
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        log.info("Logging – {}", TestLogAppender.stats());
+        SelectorCheck.exportCosts(ActionMetrics.defaultDir());
+    }
+
     @Override
     public void onTestStart(ITestResult result) {
         log.info("▶ START  : {}", formatName(result));
@@ -55,7 +158,49 @@ public class TestListener implements ITestListener {
 
     // ─────────────────────────────────────────────────────────────────────────
 
+    /**
+     * Strict HAR replay: a request the recording could not answer fails the test – including
+     * misses of the class's setup navigation, which the first test picks up.
+     */
+    private static void failOnReplayMisses(ITestResult result) {
+        List<String> misses = PlaywrightFactory.takeReplayMisses();
+        if (misses.isEmpty()) {
+            return;
+        }
+        if (result.getStatus() == ITestResult.SUCCESS) {
+            result.setStatus(ITestResult.FAILURE);
+            result.setThrowable(new AssertionError(misses.size() + " request(s) not in the HAR recording"
+                    + " (har.unmatched=fail) – re-record with -Dnetwork.mode=record: " + misses));
+        } else {
+            log.warn("{} also had {} HAR replay miss(es): {}", formatName(result), misses.size(), misses);
+        }
+    }
+
     private static String formatName(ITestResult r) {
-        return r.getTestClass().getRealClass().getSimpleName() + "#" + r.getMethod().getMethodName();
+        String name = r.getTestClass().getRealClass().getSimpleName() + "#" + r.getMethod().getMethodName();
+        // In a browser matrix the same test runs once per engine – keep logs and traces apart
+        if (!BalancedSuiteListener.matrixBrowsers().isEmpty() && r.getInstance() instanceof BaseUITest ui) {
+            name += "[" + ui.getBrowserName() + "]";
+        }
+        return name;
+    }
+
+    /**
+     * Labels a UI test's Allure result with its browser, and keeps results of the same
+     * test on different browsers apart (they would otherwise share a history id and be
+     * shown as retries of one another).
+     */
+    private static void tagBrowser(ITestResult result) {
+        if (!(result.getInstance() instanceof BaseUITest ui) || ui.getBrowserName() == null) {
+            return;
+        }
+        String browser = ui.getBrowserName();
+        Allure.getLifecycle().updateTestCase(tc -> {
+            tc.getLabels().add(new Label().setName("browser").setValue(browser));
+            tc.getParameters().add(new Parameter().setName("browser").setValue(browser));
+            if (tc.getHistoryId() != null) {
+                tc.setHistoryId(tc.getHistoryId() + ":" + browser);
+            }
+        });
     }
 }
\ No newline at end of file
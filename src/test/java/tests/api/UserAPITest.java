@@ -2,26 +2,25 @@ package tests.api;
 
 import api.base.BaseAPITest;
 import api.clients.UserAPIClient;
+import api.data.UserDataFactory;
 import io.restassured.response.Response;
 import api.models.User;
 
 import org.testng.annotations.Test;
 import utils.APIValidator;
+import utils.RetryAnalyzer;
 
-import java.util.UUID;
-
+// One user flows through create → get → update → delete, so no step is retried on its own
 public class UserAPITest extends BaseAPITest {
 
 	int userId;
 	UserAPIClient client = new UserAPIClient();
 
-	String randomEmail = "user" + UUID.randomUUID() + "@mail.com";
+	User user = UserDataFactory.shared().next();
 
-	@Test(priority = 1)
+	@Test(priority = 1, retryAnalyzer = RetryAnalyzer.Never.class)
 	public void createUserTest() {
 
-		User user = new User("John Doe", randomEmail, "male", "active");
-
 		Response response = client.createUser(user);
 
 		APIValidator.validateStatusCode(response, 201);
@@ -30,7 +29,7 @@ public class UserAPITest extends BaseAPITest {
 		System.out.println("Created User ID: " + userId);
 	}
 
-	@Test(priority = 2, dependsOnMethods = "createUserTest")
+	@Test(priority = 2, retryAnalyzer = RetryAnalyzer.Never.class, dependsOnMethods = "createUserTest")
 	public void getUserTest() {
 
 		Response response = client.getUser(userId);
@@ -38,17 +37,17 @@ public class UserAPITest extends BaseAPITest {
 		APIValidator.validateStatusCode(response, 200);
 	}
 
-	@Test(priority = 3, dependsOnMethods = "createUserTest")
+	@Test(priority = 3, retryAnalyzer = RetryAnalyzer.Never.class, dependsOnMethods = "createUserTest")
 	public void updateUserTest() {
 
-		User updatedUser = new User("John Updated", randomEmail, "female", "active");
+		User updatedUser = UserDataFactory.shared().updateOf(user);
 
 		Response response = client.updateUser(userId, updatedUser);
 
 		APIValidator.validateStatusCode(response, 200);
 	}
 
-	@Test(priority = 4, dependsOnMethods = "updateUserTest")
+	@Test(priority = 4, retryAnalyzer = RetryAnalyzer.Never.class, dependsOnMethods = "updateUserTest")
 	public void deleteUserTest() {
 
 		Response response = client.deleteUser(userId);
@@ -0,0 +1,47 @@
+package tests.api;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import api.clients.AsyncUserAPIClient;
+import api.load.LoadReport;
+import api.load.UserCrudLoadRunner;
+import config.ConfigReader;
+import io.qameta.allure.Allure;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+/**
+ * Open-loop load run of the user CRUD flow.
+ *
+ * Skipped unless {@code -Dload.enabled=true}, so the regular suite never floods the
+ * API.  Pair with {@code -Dapi.stub.enabled=true} to load the local stub instead of gorest.
+ */
+public class UserLoadTest {
+
+	private static final Logger log = LogManager.getLogger(UserLoadTest.class);
+
+	@Test(groups = "load", description = "CRUD flow at the configured request rate stays under the error budget")
+	public void userCrudLoad() throws IOException {
+		if (!ConfigReader.resolveBoolean("load.enabled", false)) {
+			throw new SkipException("Load tests are disabled – run with -Dload.enabled=true");
+		}
+
+		UserCrudLoadRunner runner = new UserCrudLoadRunner(UserCrudLoadRunner.Settings.fromConfig(),
+				new AsyncUserAPIClient());
+		LoadReport report = runner.run();
+
+		Path file = report.writeTo(Paths.get("target", "load", "user-crud-" + System.currentTimeMillis() + ".json"));
+		Allure.addAttachment("Load report", "application/json", report.toJson(), ".json");
+		log.info("Load report written to {}", file);
+
+		double maxErrorRate = Double.parseDouble(ConfigReader.resolve("load.maxErrorRate", "0.01"));
+		long requests = report.totalRequests();
+		Assert.assertTrue(report.totalErrors() <= requests * maxErrorRate,
+				"Errors " + report.totalErrors() + " exceed " + maxErrorRate + " of " + requests + " requests");
+	}
+}
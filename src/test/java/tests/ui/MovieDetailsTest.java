@@ -1,6 +1,7 @@
 package tests.ui;
 
 import base.BaseUITest;
+import com.microsoft.playwright.Page;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.testng.Assert;
@@ -40,6 +41,12 @@ public class MovieDetailsTest extends BaseUITest {
         log.info("Landed on detail page for: '{}'", expectedTitle);
     }
 
+    /** After a retry restored the detail page on a fresh context – rebind without navigating. */
+    @Override
+    protected void bindPages(Page page) {
+        detailsPage = new MovieDetailsPage(page);
+    }
+
     @Test(description = "Verify movie title on detail page matches the listing")
     public void verifyMovieTitle() {
         String actualTitle = detailsPage.getMovieTitle();
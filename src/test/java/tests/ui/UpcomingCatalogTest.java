@@ -0,0 +1,68 @@
+package tests.ui;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import base.BaseUITest;
+import config.ConfigReader;
+import io.qameta.allure.Allure;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Optional;
+import org.testng.annotations.Parameters;
+import org.testng.annotations.Test;
+
+import ui.models.MovieCard;
+import ui.pages.MovieDetailsCrawler;
+import ui.pages.UpcomingMoviesPage;
+
+/**
+ * Full-catalog check: every movie on every page of the upcoming listing gets its detail
+ * page opened and validated, {@code crawl.concurrency} pages at a time.
+ *
+ * Skipped unless {@code -Dcrawl.enabled=true} – it visits every listed movie, which the
+ * regular suite does not need; the check runs before any browser is set up.
+ * {@code crawl.limit} caps the number of movies (0 = all), {@code listing.maxPages} the pages.
+ */
+public class UpcomingCatalogTest extends BaseUITest {
+
+	private static final Logger log = LogManager.getLogger(UpcomingCatalogTest.class);
+
+	/** Checked before the browser is set up, so a disabled crawl costs nothing. */
+	@Override
+	@Parameters("browser")
+	@BeforeClass(alwaysRun = true)
+	public void setup(@Optional String browserName) {
+		if (!ConfigReader.resolveBoolean("crawl.enabled", false)) {
+			throw new SkipException("Catalog crawl is disabled – run with -Dcrawl.enabled=true");
+		}
+		super.setup(browserName);
+	}
+
+	@Test(groups = "crawl", description = "Every upcoming movie's detail page has title, language, overview, release date and genres")
+	public void everyUpcomingMovieHasCompleteDetails() {
+		MovieDetailsCrawler crawler = new MovieDetailsCrawler(getPage().context(),
+				ConfigReader.resolveInt("crawl.concurrency", 4));
+
+		// Every page of the listing, read lazily – later pages load while detail pages are checked
+		int limit = ConfigReader.resolveInt("crawl.limit", 0);
+		MovieDetailsCrawler.Report report;
+		try (Stream<MovieCard> movies = new UpcomingMoviesPage(getPage()).streamAllMovies()) {
+			report = crawler.crawl(limit > 0 ? movies.limit(limit) : movies);
+		}
+		Assert.assertFalse(report.pages().isEmpty(), "Upcoming movies list should not be empty");
+
+		Allure.addAttachment("Catalog crawl", "application/json", report.toJson(), ".json");
+		log.info("Catalog crawl – {}", report.summary());
+
+		List<MovieDetailsCrawler.PageResult> failures = report.failures();
+		Assert.assertTrue(failures.isEmpty(), failures.size() + " of " + report.pages().size()
+				+ " detail pages failed:\n" + failures.stream()
+						.map(f -> f.card().title() + " – " + f.problems())
+						.collect(Collectors.joining("\n")));
+	}
+}
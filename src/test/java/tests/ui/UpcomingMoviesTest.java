@@ -1,14 +1,17 @@
 package tests.ui;
 
 import java.util.Map;
+import java.util.stream.Stream;
 
 import base.BaseUITest;
+import com.microsoft.playwright.Page;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.testng.Assert;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import ui.models.MovieCard;
 import ui.pages.MovieDetailsPage;
 import ui.pages.UpcomingMoviesPage;
 
@@ -42,6 +45,13 @@ public class UpcomingMoviesTest extends BaseUITest {
 		detailsPage = new MovieDetailsPage(getPage());
 	}
 
+	/** After a retry restored the listing on a fresh context – rebind without navigating. */
+	@Override
+	protected void bindPages(Page page) {
+		upcomingPage = UpcomingMoviesPage.forCurrentPage(page);
+		detailsPage = new MovieDetailsPage(page);
+	}
+
 	@Test(priority = 0, description = "Verify the upcoming movies list is populated")
 	public void fetchUpcomingMovies() {
 		log.info("Running fetchUpcomingMovies");
@@ -56,6 +66,18 @@ public class UpcomingMoviesTest extends BaseUITest {
 		log.info("Total upcoming movies found: {}", movies.size());
 	}
 
+	@Test(priority = 0, description = "Verify the listing streams past its first page")
+	public void streamMoviesBeyondFirstPage() {
+		int firstPage = upcomingPage.getMovieCards().size();
+
+		// limit() short-circuits – only as many pages as needed are fetched
+		try (Stream<MovieCard> movies = upcomingPage.streamAllMovies()) {
+			long streamed = movies.limit(firstPage + 1L).count();
+			Assert.assertEquals(streamed, firstPage + 1L,
+					"Listing should continue on a second page after the " + firstPage + " rendered movies");
+		}
+	}
+
 	@Test(priority = 1, description = "Verify clicking a movie navigates to the correct detail page", dependsOnMethods = "fetchUpcomingMovies")
 	public void goToMovieDetails() {
 		log.info("Running goToMovieDetails");